@@ -0,0 +1,145 @@
+package io.github.itech_framework.core.benchmarks;
+
+import io.github.itech_framework.core.startup.AppCds;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cold-start gain of an AppCDS archive on a generated application.
+ * <p>
+ * The application and every class path directory are packaged as jars, since CDS only archives
+ * classes from jars. The harness then launches {@code generated.Main} in fresh JVMs: {@code runs}
+ * times without an archive, once as a training run ({@link AppCds#TRAINING_PROPERTY}), once through
+ * {@link AppCds} to create the dynamic archive, and {@code runs} times with the archive. It prints
+ * the median process wall time of both series and how many classes a launch took from the archive.
+ * </p>
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@app-cds
+ * mvn -Pjmh test-compile exec:exec@app-cds -Dcds.args="-Ditech.cds.components=4000"
+ * </pre>
+ * System properties, with defaults:
+ * <ul>
+ *   <li>{@code itech.cds.components} ({@code 2000}): components of the generated application, shaped like
+ *       those of {@link StartupScalingHarness}</li>
+ *   <li>{@code itech.cds.runs} ({@code 5}): launches per series</li>
+ * </ul>
+ */
+public final class AppCdsHarness {
+
+    private AppCdsHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int components = Integer.getInteger("itech.cds.components", 2000);
+        int runs = Integer.getInteger("itech.cds.runs", 5);
+        GeneratedApplication.Shape shape = new GeneratedApplication.Shape(components, 3, 3, 0.5, 1, 1, 1,
+                true, false, 42);
+
+        try (GeneratedApplication application = GeneratedApplication.create(shape)) {
+            Path work = application.getClasses().getParent();
+            String classPath = jarClassPath(application.getClasses(), work);
+            Path classList = work.resolve("app.classlist");
+            Path archive = work.resolve("app.jsa");
+            Path preferences = Files.createDirectories(work.resolve("prefs"));
+            List<String> common = List.of("-Djava.util.prefs.userRoot=" + preferences, "-Ditech.scan.cache=false",
+                    "-cp", classPath);
+
+            System.out.println("AppCDS cold start for " + shape);
+            double baseline = median(launch(runs, common, List.of()));
+
+            exec(launchCommand(common, List.of("-D" + AppCds.TRAINING_PROPERTY + "=" + classList)));
+            System.out.println("Training run listed " + Files.readAllLines(classList).size() + " classes");
+            exec(List.of(java(), "-cp", classPath, AppCds.class.getName(), classList.toString(), archive.toString()));
+            System.out.printf(Locale.ROOT, "Archive: %.1f MB%n", Files.size(archive) / (1024.0 * 1024.0));
+
+            Path classLoadLog = work.resolve("class-load.log");
+            exec(launchCommand(common, List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:class+load=info:file=" + classLoadLog)));
+            try (Stream<String> lines = Files.lines(classLoadLog)) {
+                System.out.println("Classes loaded from the archive: "
+                        + lines.filter(line -> line.contains("source: shared objects file (top)")).count());
+            }
+            double archived = median(launch(runs, common, List.of("-XX:SharedArchiveFile=" + archive)));
+            System.out.printf(Locale.ROOT, "Median cold start: %.0f ms without archive, %.0f ms with archive (%.0f%% faster)%n",
+                    baseline, archived, 100 * (baseline - archived) / baseline);
+        }
+    }
+
+    private static double[] launch(int runs, List<String> common, List<String> options) throws Exception {
+        List<String> command = launchCommand(common, options);
+        double[] millis = new double[runs];
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            exec(command);
+            millis[run] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        System.out.println(String.join(" ", options.isEmpty() ? List.of("(no archive)") : options)
+                + ": " + Arrays.toString(Arrays.stream(millis).mapToLong(Math::round).toArray()) + " ms");
+        return millis;
+    }
+
+    private static List<String> launchCommand(List<String> common, List<String> options) {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(options);
+        command.addAll(common);
+        command.add(GeneratedApplication.MAIN_CLASS);
+        return command;
+    }
+
+    private static void exec(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Command failed with status " + process.exitValue() + ": " + command);
+        }
+    }
+
+    /**
+     * @return the class path of this JVM with the application in front, every directory replaced by a jar
+     */
+    private static String jarClassPath(Path applicationClasses, Path work) throws IOException {
+        List<String> entries = new ArrayList<>();
+        entries.add(jar(applicationClasses, work.resolve("app.jar")).toString());
+        String[] classPath = System.getProperty("java.class.path").split(File.pathSeparator);
+        for (int i = 0; i < classPath.length; i++) {
+            Path entry = Path.of(classPath[i]);
+            entries.add(Files.isDirectory(entry) ? jar(entry, work.resolve("classpath-" + i + ".jar")).toString() : classPath[i]);
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static Path jar(Path directory, Path jar) throws IOException {
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                output.putNextEntry(new JarEntry(directory.relativize(file).toString().replace(File.separatorChar, '/')));
+                Files.copy(file, output);
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.itech_framework.core.benchmarks;
+
+import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
+import io.github.itech_framework.core.store.ComponentStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Component lookups by key, by class and by type from four threads, and listing a tier, on the concurrent
+ * maps and on the snapshot built by {@link ComponentStore#freeze()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComponentStoreBenchmark {
+    @Param({"100", "10000"})
+    private int components;
+
+    @Param({"false", "true"})
+    private boolean frozen;
+
+    private final String key = Target.class.getName();
+
+    public static class Target {
+    }
+
+    @Setup(Level.Trial)
+    public void register() {
+        for (int i = 0; i < components; i++) {
+            ComponentStore.registerComponent("component" + i, new Object(), i % 4);
+        }
+        ComponentStore.registerComponent(Target.class, new Target(), ComponentProcessor.DEFAULT_LEVEL);
+        if (frozen) ComponentStore.freeze();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getComponentByKey() {
+        return ComponentStore.getComponent(key);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Target> getComponentByClass() {
+        return ComponentStore.getComponent(Target.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Target> getComponentsOfType() {
+        return ComponentStore.getComponentsOfType(Target.class);
+    }
+
+    @Benchmark
+    public List<Object> getComponentsByLevel() {
+        return ComponentStore.getComponentsByLevel(ComponentProcessor.BUSINESS_LOGIC_LEVEL);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.itech_framework.core.benchmarks;
+
+import io.github.itech_framework.core.utils.ObjectUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ObjectUtils#convertValue} for the common property and storage types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertValueBenchmark {
+    private String text = "text";
+    private String number = "4711";
+    private String flag = "true";
+    private String decimal = "47.11";
+    private String constant = "SECONDS";
+
+    @Benchmark
+    public Object toText() {
+        return ObjectUtils.convertValue(text, String.class);
+    }
+
+    @Benchmark
+    public Object toInt() {
+        return ObjectUtils.convertValue(number, int.class);
+    }
+
+    @Benchmark
+    public Object toBoolean() {
+        return ObjectUtils.convertValue(flag, Boolean.class);
+    }
+
+    @Benchmark
+    public Object toDouble() {
+        return ObjectUtils.convertValue(decimal, double.class);
+    }
+
+    @Benchmark
+    public Object toEnum() {
+        return ObjectUtils.convertValue(constant, TimeUnit.class);
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.itech_framework.core.benchmarks;
+
+import io.github.itech_framework.core.annotations.storage.DataStorage;
+import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
+import io.github.itech_framework.core.storage.CachingDataStorageService;
+import io.github.itech_framework.core.storage.DataStorageService;
+import io.github.itech_framework.core.storage.DefaultDataStorageService;
+import io.github.itech_framework.core.storage.LogStructuredDataStorageService;
+import io.github.itech_framework.core.storage.WriteBehindDataStorageService;
+import io.github.itech_framework.core.store.ComponentStore;
+import io.github.itech_framework.core.utils.DataStorageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link DataStorageUtil#save} with one bound {@code @DataStorage} field among many components.
+ * {@code storage=memory} saves to an in-memory service, so the store itself is not measured;
+ * {@code preferences} writes through to the default {@link java.util.prefs.Preferences} service and
+ * {@code writeBehind} to the same service behind a {@link WriteBehindDataStorageService},
+ * {@code cached} to the same service behind a {@link CachingDataStorageService}, and
+ * {@code log} appends to a {@link LogStructuredDataStorageService}. Preferences go to
+ * {@code target/jmh-prefs}, the log to {@code target/jmh-log}.
+ * <p>
+ * {@code load} reads one key through {@link DataStorageUtil#load}, as a screen polling it does;
+ * {@code loadEach} and {@code loadAll} load one key per component, as startup does for the
+ * {@code @DataStorage} fields of a tier, with one call per key or one bulk call.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.prefs.userRoot=target/jmh-prefs")
+@State(Scope.Benchmark)
+public class DataStorageBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int components;
+
+    @Param({"memory", "preferences", "writeBehind", "cached", "log"})
+    private String storage;
+
+    private DataStorageService service;
+
+    private int counter;
+
+    private List<String> keys;
+
+    public static class Settings {
+        @DataStorage(key = "counter")
+        private int counter;
+
+    private List<String> keys;
+    }
+
+    public static class Plain {
+    }
+
+    public static class MemoryStorage implements DataStorageService {
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+
+        @Override
+        public String load(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void save(String key, String value) {
+            values.put(key, value);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void register() throws IOException {
+        service = switch (storage) {
+            case "memory" -> new MemoryStorage();
+            case "preferences" -> new DefaultDataStorageService();
+            case "writeBehind" -> new WriteBehindDataStorageService(new DefaultDataStorageService());
+            case "cached" -> new CachingDataStorageService(new DefaultDataStorageService(), 1024, 0);
+            case "log" -> new LogStructuredDataStorageService(emptyDirectory(Path.of("target", "jmh-log")));
+            default -> throw new IllegalArgumentException(storage);
+        };
+        ComponentStore.registerComponent(DataStorageService.class.getName(), service, ComponentProcessor.DEFAULT_LEVEL);
+        for (int i = 0; i < components; i++) {
+            ComponentStore.registerComponent("component" + i, new Plain(), i % 4);
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < components; i++) {
+            values.put("key" + i, "value" + i);
+        }
+        service.saveAll(values);
+        keys = List.copyOf(values.keySet());
+        Settings settings = new Settings();
+        // binds the field to its storage key, as startup does
+        ComponentProcessor.injectFields(Settings.class, settings);
+        ComponentStore.registerComponent(Settings.class, settings, ComponentProcessor.DEFAULT_LEVEL);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        if (service instanceof AutoCloseable closeable) closeable.close();
+    }
+
+    private static Path emptyDirectory(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+        return directory;
+    }
+
+    @Benchmark
+    public void save() {
+        DataStorageUtil.save("counter", counter++);
+    }
+
+    @Benchmark
+    public Object load() {
+        return DataStorageUtil.load("counter");
+    }
+
+    @Benchmark
+    public void loadEach(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(service.load(key));
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> loadAll() {
+        return service.loadAll(keys);
+    }
+}
@@ -0,0 +1,263 @@
+package io.github.itech_framework.core.benchmarks;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * A synthetic application generated as sources from a {@link Shape} and compiled in-process with
+ * {@link javax.tools}.
+ * <p>
+ * Component {@code i} is annotated with the stereotype of tier {@code i % 4} and {@code @Rx}-injects
+ * earlier components only, so the graph is acyclic. The generated package is {@code generated}, its
+ * main class {@code generated.Main}, which can also be launched in its own JVM.
+ * </p>
+ */
+final class GeneratedApplication implements AutoCloseable {
+    static final String PACKAGE = "generated";
+    static final String MAIN_CLASS = PACKAGE + ".Main";
+
+    private static final String INDEX_PROCESSOR =
+            "io.github.itech_framework.core.processor.annotation_processor.ComponentIndexProcessor";
+
+    private static final String[] STEREOTYPES = {
+            "io.github.itech_framework.core.annotations.components.levels.DataAccess",
+            "io.github.itech_framework.core.annotations.components.levels.BusinessLogic",
+            "io.github.itech_framework.core.annotations.components.levels.Presentation",
+            "io.github.itech_framework.core.annotations.components.Component"
+    };
+
+    private final Shape shape;
+    private final Path root;
+    private final Path classes;
+
+    /**
+     * Shape of a generated application.
+     *
+     * @param components     number of component classes
+     * @param fanOut         {@code @Rx} fields per component (fewer for the first components)
+     * @param fanIn          average number of components injecting a provider; providers are every
+     *                       {@code fanIn / fanOut}-th component, so a larger fan-in concentrates the
+     *                       dependencies on fewer providers
+     * @param interfaceRatio share of components implementing an interface, through which they are injected
+     * @param properties     {@code @Property} fields per component
+     * @param storageFields  {@code @DataStorage} fields per component
+     * @param initMethods    {@code @OnInit} methods per component
+     * @param index          whether the component index is written; without it startup scans the package
+     * @param context        whether a generated component context is compiled, which also writes the index;
+     *                       injected fields are then package-private instead of private
+     * @param seed           seed choosing the dependencies
+     */
+    record Shape(int components, int fanOut, int fanIn, double interfaceRatio, int properties,
+                 int storageFields, int initMethods, boolean index, boolean context, long seed) {
+        /**
+         * @return {@code components} components with three dependencies each, all behind interfaces
+         */
+        static Shape of(int components) {
+            return new Shape(components, 3, 3, 1.0, 0, 0, 0, true, false, 42);
+        }
+
+        Shape withComponents(int components) {
+            return new Shape(components, fanOut, fanIn, interfaceRatio, properties, storageFields, initMethods, index, context, seed);
+        }
+
+        Shape withIndex(boolean index) {
+            return new Shape(components, fanOut, fanIn, interfaceRatio, properties, storageFields, initMethods, index, context, seed);
+        }
+
+        Shape withContext(boolean context) {
+            return new Shape(components, fanOut, fanIn, interfaceRatio, properties, storageFields, initMethods, index, context, seed);
+        }
+    }
+
+    private GeneratedApplication(Shape shape, Path root) {
+        this.shape = shape;
+        this.root = root;
+        this.classes = root.resolve("classes");
+    }
+
+    /**
+     * Generates and compiles the application in a new temporary directory.
+     */
+    static GeneratedApplication create(Shape shape) throws IOException {
+        GeneratedApplication application = new GeneratedApplication(shape, Files.createTempDirectory("itech-generated"));
+        application.compile(application.generate());
+        return application;
+    }
+
+    Shape getShape() {
+        return shape;
+    }
+
+    Path getClasses() {
+        return classes;
+    }
+
+    /**
+     * @return a class loader seeing the framework and the application but no class already loaded by
+     * the caller, so every startup initializes the framework from scratch
+     */
+    URLClassLoader newClassLoader() {
+        try {
+            List<URL> urls = new ArrayList<>();
+            urls.add(classes.toUri().toURL());
+            for (String entry : System.getProperty("java.class.path").split(java.io.File.pathSeparator)) {
+                urls.add(Path.of(entry).toUri().toURL());
+            }
+            return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs {@code ITechApplication.run} for the generated main class in a fresh class loader. The
+     * loader stays open, since the shutdown hook of the application still loads classes from it.
+     */
+    void run() throws Exception {
+        start(newClassLoader());
+    }
+
+    /**
+     * Starts the generated application in {@code loader} and closes its context again. Contexts
+     * after the first one started in a loader reuse its scan and reflection metadata.
+     */
+    void runContext(ClassLoader loader) throws Exception {
+        ((AutoCloseable) start(loader)).close();
+    }
+
+    /**
+     * @return the {@code ApplicationContext} started
+     */
+    private Object start(ClassLoader loader) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try {
+            // modules are discovered with the context class loader
+            thread.setContextClassLoader(loader);
+            Class<?> main = Class.forName(MAIN_CLASS, false, loader);
+            return loader.loadClass("io.github.itech_framework.core.ITechApplication")
+                    .getMethod("run", Class.class)
+                    .invoke(null, main);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private List<Path> generate() throws IOException {
+        Path sources = root.resolve("src").resolve(PACKAGE);
+        Files.createDirectories(sources);
+        Files.createDirectories(classes);
+
+        Random random = new Random(shape.seed());
+        int step = Math.max(1, Math.round((float) shape.fanIn() / Math.max(1, shape.fanOut())));
+        boolean[] hasInterface = new boolean[shape.components()];
+        StringBuilder properties = new StringBuilder();
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < shape.components(); i++) {
+            hasInterface[i] = random.nextDouble() < shape.interfaceRatio();
+            if (hasInterface[i]) {
+                files.add(write(sources, "Service" + i, "public interface Service" + i + " {\n    int value();\n}\n"));
+            }
+            files.add(write(sources, "Component" + i, component(i, step, hasInterface, random)));
+            for (int p = 0; p < shape.properties(); p++) {
+                properties.append("generated.c").append(i).append(".p").append(p).append('=').append(i + p).append('\n');
+            }
+        }
+        files.add(write(sources, "Main", "@io.github.itech_framework.core.annotations.ComponentScan(basePackage = \""
+                + PACKAGE + "\")\npublic class Main {\n"
+                + "    public static void main(String[] args) {\n"
+                + "        io.github.itech_framework.core.ITechApplication.run(Main.class);\n"
+                + "    }\n}\n"));
+        Files.writeString(classes.resolve("application.properties"), properties);
+        return files;
+    }
+
+    private void compile(List<Path> files) {
+        List<String> arguments = new ArrayList<>(List.of("-d", classes.toString(),
+                "-cp", System.getProperty("java.class.path"), "-nowarn"));
+        // only the framework's processor, not others on the class path such as lombok
+        arguments.addAll(shape.index() || shape.context() ? List.of("-processor", INDEX_PROCESSOR) : List.of("-proc:none"));
+        if (shape.context()) arguments.add("-Aitech.generateContext=true");
+        files.forEach(file -> arguments.add(file.toString()));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        if (compiler.run(null, null, errors, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Cannot compile generated application:\n" + errors);
+        }
+    }
+
+    private String component(int i, int step, boolean[] hasInterface, Random random) {
+        StringBuilder source = new StringBuilder();
+        source.append('@').append(STEREOTYPES[i % STEREOTYPES.length]).append('\n')
+                .append("public class Component").append(i);
+        if (hasInterface[i]) source.append(" implements Service").append(i);
+        source.append(" {\n");
+        String fieldModifier = shape.context() ? "    " : "    private ";
+
+        // providers are the earlier components whose index is a multiple of step
+        int providers = (i + step - 1) / step;
+        List<Integer> chosen = new ArrayList<>();
+        while (chosen.size() < Math.min(providers, shape.fanOut())) {
+            int dependency = random.nextInt(providers) * step;
+            if (!chosen.contains(dependency)) chosen.add(dependency);
+        }
+        for (int dependency : chosen) {
+            String type = hasInterface[dependency] ? "Service" + dependency : "Component" + dependency;
+            source.append("    @io.github.itech_framework.core.annotations.reactives.Rx\n")
+                    .append(fieldModifier).append(type).append(" dependency").append(dependency).append(";\n");
+        }
+        for (int p = 0; p < shape.properties(); p++) {
+            source.append("    @io.github.itech_framework.core.annotations.properties.Property(key = \"generated.c")
+                    .append(i).append(".p").append(p).append("\")\n")
+                    .append(fieldModifier).append("int property").append(p).append(";\n");
+        }
+        for (int s = 0; s < shape.storageFields(); s++) {
+            source.append("    @io.github.itech_framework.core.annotations.storage.DataStorage(key = \"generated.c")
+                    .append(i).append(".s").append(s).append("\", defaultValue = \"").append(s).append("\")\n")
+                    .append(fieldModifier).append("int stored").append(s).append(";\n");
+        }
+        source.append("    private int sum;\n");
+        for (int m = 0; m < shape.initMethods(); m++) {
+            source.append("    @io.github.itech_framework.core.annotations.methods.OnInit(order = ").append(m).append(")\n")
+                    .append("    void init").append(m).append("() {\n");
+            for (int dependency : chosen) {
+                source.append("        sum += dependency").append(dependency).append(".value();\n");
+            }
+            source.append("    }\n");
+        }
+        if (hasInterface[i]) source.append("    @Override\n");
+        source.append("    public int value() {\n        return ").append(i).append(" + sum;\n    }\n}\n");
+        return source.toString();
+    }
+
+    private static Path write(Path directory, String name, String source) throws IOException {
+        return Files.writeString(directory.resolve(name + ".java"), "package " + PACKAGE + ";\n\n" + source);
+    }
+}
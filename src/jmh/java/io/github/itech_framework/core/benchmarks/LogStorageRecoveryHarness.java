@@ -0,0 +1,331 @@
+package io.github.itech_framework.core.benchmarks;
+
+import io.github.itech_framework.core.storage.LogStructuredDataStorageService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Damages and reopens {@link LogStructuredDataStorageService} logs the way crashes and failing disks
+ * do, and fails when a value is lost or a damaged record is read back.
+ * <p>
+ * Covers a record torn at the end of the log, a record failing its CRC, segments left behind by a
+ * compaction interrupted before it deleted them, writes failing part-way (truncated, or rolled over
+ * when truncating fails too), and saves made while a compaction runs, which must neither wait for it
+ * nor be lost. Each check uses a fresh temporary directory; the harness exits with status 1 on the
+ * first failure.
+ * </p>
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@log-recovery
+ * </pre>
+ */
+public final class LogStorageRecoveryHarness {
+    private static final long SEGMENT_SIZE = 64 * 1024;
+
+    private LogStorageRecoveryHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        try {
+            tornTail();
+            checksumMismatch();
+            interruptedCompaction();
+            partialWrite(false);
+            partialWrite(true);
+            savesDuringCompaction();
+        } catch (AssertionError e) {
+            System.err.println("FAILED " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("All log recovery checks passed");
+    }
+
+    private static void tornTail() throws IOException {
+        Path directory = Files.createTempDirectory("itech-log-torn");
+        try (LogStructuredDataStorageService log = open(directory)) {
+            log.save("kept", "1");
+            log.save("torn", "2");
+        }
+        Path last = lastSegment(directory);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        try (LogStructuredDataStorageService log = open(directory)) {
+            check("1".equals(log.load("kept")) && log.load("torn") == null, "torn record skipped, earlier kept");
+            log.save("after", "3");
+        }
+        try (LogStructuredDataStorageService log = open(directory)) {
+            check("3".equals(log.load("after")) && "1".equals(log.load("kept")), "record saved after a torn one survives reopening");
+        }
+        delete(directory);
+    }
+
+    private static void checksumMismatch() throws IOException {
+        Path directory = Files.createTempDirectory("itech-log-crc");
+        try (LogStructuredDataStorageService log = open(directory)) {
+            log.save("a", "first");
+            log.save("b", "damaged");
+            log.save("c", "third");
+        }
+        Path last = lastSegment(directory);
+        byte[] bytes = Files.readAllBytes(last);
+        int offset = indexOf(bytes, "damaged".getBytes(StandardCharsets.UTF_8));
+        check(offset >= 0, "damaged value found in " + last.getFileName());
+        bytes[offset] ^= 0x20;
+        Files.write(last, bytes);
+        try (LogStructuredDataStorageService log = open(directory)) {
+            check("first".equals(log.load("a")), "record before the damaged one kept");
+            check(log.load("b") == null && log.load("c") == null, "damaged record and those after it rejected");
+        }
+        delete(directory);
+    }
+
+    private static void interruptedCompaction() throws IOException {
+        Path directory = Files.createTempDirectory("itech-log-compaction");
+        try (LogStructuredDataStorageService log = open(directory)) {
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 100; i++) log.save("k" + i, "round" + round);
+            }
+            log.save("removed", "x");
+            log.save("removed", null);
+            Path stale = Files.createTempFile("itech-log-stale", ".log");
+            Files.copy(firstSegment(directory), stale, StandardCopyOption.REPLACE_EXISTING);
+            Path staleTarget = firstSegment(directory);
+            log.compact();
+            // as if the process had died before deleting the obsolete segments
+            Files.move(stale, staleTarget, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (LogStructuredDataStorageService log = open(directory)) {
+            check("round19".equals(log.load("k0")) && "round19".equals(log.load("k99")) && log.load("removed") == null,
+                    "values read from the snapshot, not the stale segment");
+        }
+        check(segments(directory).size() == 2, "segments before the snapshot deleted: " + segments(directory));
+        delete(directory);
+    }
+
+    private static void partialWrite(boolean failTruncate) throws Exception {
+        Path directory = Files.createTempDirectory("itech-log-partial");
+        try (LogStructuredDataStorageService log = open(directory)) {
+            log.save("before", "1");
+            Field active = LogStructuredDataStorageService.class.getDeclaredField("active");
+            active.setAccessible(true);
+            active.set(log, new FailingChannel((FileChannel) active.get(log), failTruncate));
+            try {
+                log.save("failed", "2");
+                check(false, "write reported as failed");
+            } catch (UncheckedIOException e) {
+                check(log.load("failed") == null, "failed write not visible"
+                        + (failTruncate ? " (segment rolled over)" : " (segment truncated)"));
+            }
+            log.save("after", "3");
+        }
+        try (LogStructuredDataStorageService log = open(directory)) {
+            check("1".equals(log.load("before")) && log.load("failed") == null && "3".equals(log.load("after")),
+                    "record saved after a failed write survives reopening");
+        }
+        delete(directory);
+    }
+
+    private static void savesDuringCompaction() throws Exception {
+        Path directory = Files.createTempDirectory("itech-log-concurrent");
+        try (LogStructuredDataStorageService log = new LogStructuredDataStorageService(directory, 8L << 20, 0.99)) {
+            String value = "v".repeat(100);
+            for (int i = 0; i < 200_000; i++) log.save("k" + i, value);
+            Thread compaction = new Thread(log::compact);
+            long start = System.nanoTime();
+            compaction.start();
+            long slowest = 0;
+            int saves = 0;
+            while (compaction.isAlive()) {
+                long before = System.nanoTime();
+                log.save("during" + saves, "x");
+                slowest = Math.max(slowest, System.nanoTime() - before);
+                saves++;
+            }
+            long compactionNanos = System.nanoTime() - start;
+            compaction.join();
+            System.out.printf(Locale.ROOT, "compaction %.1f ms, %d saves meanwhile, slowest %.2f ms%n",
+                    compactionNanos / 1e6, saves, slowest / 1e6);
+            check(slowest < compactionNanos / 2, "saves not held up by the compaction");
+            check(saves > 0 && "x".equals(log.load("during" + (saves - 1))), "saves made during the compaction visible");
+        }
+        try (LogStructuredDataStorageService log = open(directory)) {
+            check("x".equals(log.load("during0")) && log.load("k199999") != null,
+                    "saves made during the compaction survive reopening");
+        }
+        delete(directory);
+    }
+
+    private static LogStructuredDataStorageService open(Path directory) {
+        return new LogStructuredDataStorageService(directory, SEGMENT_SIZE, 0.5);
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) throw new AssertionError(description);
+        System.out.println("ok " + description);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                    .sorted(Comparator.comparingLong(LogStorageRecoveryHarness::segmentNumber))
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - ".log".length()));
+    }
+
+    private static Path firstSegment(Path directory) throws IOException {
+        return segments(directory).get(0);
+    }
+
+    private static Path lastSegment(Path directory) throws IOException {
+        List<Path> segments = segments(directory);
+        return segments.get(segments.size() - 1);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern) {
+        search:
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) continue search;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Channel writing five bytes of the first gathering write and then failing, like a full disk.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        private final boolean failTruncate;
+        private boolean failed;
+
+        FailingChannel(FileChannel channel, boolean failTruncate) {
+            this.channel = channel;
+            this.failTruncate = failTruncate;
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            if (failed) return channel.write(sources, offset, length);
+            failed = true;
+            ByteBuffer part = sources[offset].duplicate();
+            part.limit(part.position() + 5);
+            channel.write(part);
+            throw new IOException("No space left on device");
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) throw new IOException("Cannot truncate");
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return channel.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return channel.read(destinations, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            return channel.write(source);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long position) throws IOException {
+            channel.position(position);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return channel.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return channel.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return channel.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
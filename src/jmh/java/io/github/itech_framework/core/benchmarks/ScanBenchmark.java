@@ -0,0 +1,63 @@
+package io.github.itech_framework.core.benchmarks;
+
+import io.github.itech_framework.core.utils.ComponentIndex;
+import io.github.itech_framework.core.utils.PackageClassesLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serial against fork/join scanning of a generated package, without the scan cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+    @Param({"1000", "10000", "50000"})
+    private int components;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private GeneratedApplication application;
+    private URLClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        application = GeneratedApplication.create(GeneratedApplication.Shape.of(components).withIndex(false));
+        classLoader = new URLClassLoader(new URL[]{application.getClasses().toUri().toURL()},
+                ScanBenchmark.class.getClassLoader());
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws Exception {
+        classLoader.close();
+        application.close();
+    }
+
+    @Benchmark
+    public List<ComponentIndex.Entry> scan() throws Exception {
+        return PackageClassesLoader.scanEntries(GeneratedApplication.PACKAGE, classLoader,
+                metadata -> metadata.annotations().isEmpty() ? null
+                        : new ComponentIndex.Entry(metadata.className(), metadata.className(), 3, metadata.interfaces()),
+                parallel, null);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.itech_framework.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@code ITechApplication.run} on generated applications, each run in a fresh class loader.
+ * With {@code index=false} the application is compiled without the component index, so startup
+ * scans the package; the scan cache is disabled. With {@code context=true} a generated component
+ * context is compiled as well, which always writes the index. {@link #runAgain()} instead starts
+ * and closes one more application context in a class loader that already started the application.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Ditech.scan.cache=false")
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int components;
+
+    @Param({"true", "false"})
+    private boolean index;
+
+    @Param({"false", "true"})
+    private boolean context;
+
+    private GeneratedApplication application;
+    private URLClassLoader loader;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        application = GeneratedApplication.create(GeneratedApplication.Shape.of(components).withIndex(index).withContext(context));
+        loader = application.newClassLoader();
+        application.runContext(loader);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws Exception {
+        loader.close();
+        application.close();
+    }
+
+    @Benchmark
+    public void run() throws Exception {
+        application.run();
+    }
+
+    @Benchmark
+    public void runAgain() throws Exception {
+        application.runContext(loader);
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.itech_framework.core.benchmarks;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Starts generated applications of growing size and fails when startup time grows super-linearly
+ * with the number of components.
+ * <p>
+ * Each size is generated once and started {@code runs} times in a fresh class loader after one
+ * warm-up start; the fastest run counts. Startup runs on the calling thread, so allocated bytes are
+ * those of that thread. The growth exponent is the slope of log(time) over log(components); the
+ * harness exits with status 1 when it exceeds {@code maxExponent}.
+ * </p>
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@startup-scaling
+ * mvn -Pjmh test-compile exec:exec@startup-scaling -Dscaling.args="-Ditech.scaling.sizes=1000,4000,16000"
+ * </pre>
+ * System properties, with defaults:
+ * <ul>
+ *   <li>{@code itech.scaling.sizes} ({@code 500,1000,2000,4000}): component counts</li>
+ *   <li>{@code itech.scaling.fanOut} ({@code 3}), {@code itech.scaling.fanIn} ({@code 3}),
+ *       {@code itech.scaling.interfaces} ({@code 0.5}), {@code itech.scaling.properties} ({@code 1}),
+ *       {@code itech.scaling.storageFields} ({@code 1}), {@code itech.scaling.initMethods} ({@code 1}),
+ *       {@code itech.scaling.index} ({@code true}), {@code itech.scaling.context} ({@code false}):
+ *       the {@link GeneratedApplication.Shape}</li>
+ *   <li>{@code itech.scaling.runs} ({@code 3}): measured starts per size</li>
+ *   <li>{@code itech.scaling.maxExponent} ({@code 1.25}): largest accepted growth exponent</li>
+ * </ul>
+ */
+public final class StartupScalingHarness {
+
+    private record Measurement(int components, long nanos, long allocatedBytes, long loadedClasses) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%8d components %10.1f ms %12.1f MB %8d classes",
+                    components, nanos / 1_000_000.0, allocatedBytes / (1024.0 * 1024.0), loadedClasses);
+        }
+    }
+
+    private StartupScalingHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = Arrays.stream(System.getProperty("itech.scaling.sizes", "500,1000,2000,4000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .sorted()
+                .toArray();
+        GeneratedApplication.Shape shape = new GeneratedApplication.Shape(sizes[0],
+                Integer.getInteger("itech.scaling.fanOut", 3),
+                Integer.getInteger("itech.scaling.fanIn", 3),
+                Double.parseDouble(System.getProperty("itech.scaling.interfaces", "0.5")),
+                Integer.getInteger("itech.scaling.properties", 1),
+                Integer.getInteger("itech.scaling.storageFields", 1),
+                Integer.getInteger("itech.scaling.initMethods", 1),
+                Boolean.parseBoolean(System.getProperty("itech.scaling.index", "true")),
+                Boolean.parseBoolean(System.getProperty("itech.scaling.context", "false")),
+                42);
+        int runs = Integer.getInteger("itech.scaling.runs", 3);
+        double maxExponent = Double.parseDouble(System.getProperty("itech.scaling.maxExponent", "1.25"));
+
+        // one thread, so the allocations of startup are those of this thread
+        System.setProperty("itech.startup.threads", "1");
+        System.setProperty("itech.scan.cache", "false");
+        Path preferences = Files.createTempDirectory("itech-scaling-prefs");
+        System.setProperty("java.util.prefs.userRoot", preferences.toString());
+
+        System.out.println("Startup scaling for " + shape);
+        List<Measurement> measurements = new ArrayList<>();
+        for (int size : sizes) {
+            try (GeneratedApplication application = GeneratedApplication.create(shape.withComponents(size))) {
+                application.run();
+                Measurement best = null;
+                for (int run = 0; run < runs; run++) {
+                    Measurement measurement = measure(application);
+                    if (best == null || measurement.nanos() < best.nanos()) best = measurement;
+                }
+                System.out.println(best);
+                measurements.add(best);
+            }
+        }
+
+        double timeExponent = exponent(measurements, Measurement::nanos);
+        double allocationExponent = exponent(measurements, Measurement::allocatedBytes);
+        System.out.printf(Locale.ROOT, "Growth exponent: time %.2f, allocation %.2f (max %.2f)%n",
+                timeExponent, allocationExponent, maxExponent);
+        if (timeExponent > maxExponent) {
+            System.err.printf(Locale.ROOT, "Startup grows super-linearly with component count: exponent %.2f > %.2f%n",
+                    timeExponent, maxExponent);
+            System.exit(1);
+        }
+    }
+
+    private static Measurement measure(GeneratedApplication application) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        System.gc();
+
+        long classes = classLoading.getTotalLoadedClassCount();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        application.run();
+        long nanos = System.nanoTime() - start;
+        return new Measurement(application.getShape().components(), nanos,
+                threads.getCurrentThreadAllocatedBytes() - allocated,
+                classLoading.getTotalLoadedClassCount() - classes);
+    }
+
+    /**
+     * @return the least-squares slope of log(value) over log(components)
+     */
+    private static double exponent(List<Measurement> measurements, ToLongFunction<Measurement> value) {
+        int n = measurements.size();
+        if (n < 2) return 0;
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (Measurement measurement : measurements) {
+            double x = Math.log(measurement.components());
+            double y = Math.log(Math.max(1, value.applyAsLong(measurement)));
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+    }
+}
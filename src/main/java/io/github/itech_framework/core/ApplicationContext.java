@@ -0,0 +1,225 @@
+package io.github.itech_framework.core;
+
+import io.github.itech_framework.core.resourcecs.CleanupTasks;
+import io.github.itech_framework.core.startup.StartupReport;
+import io.github.itech_framework.core.storage.DataStorageBindings;
+import io.github.itech_framework.core.store.ComponentContainer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One running application: its components, properties, cleanup tasks and {@code @DataStorage} fields.
+ * <p>
+ * {@link ITechApplication#run(Class)} starts a new context each time it is called, so several
+ * applications, or several instances of one application, can run isolated from each other in one
+ * JVM. Class scanning results, injection plans and other metadata derived from classes are shared
+ * between contexts, which makes every context after the first start faster.
+ * </p>
+ * <p>
+ * The static APIs of the framework ({@code ComponentStore}, {@code PropertiesLoader},
+ * {@code CleanupRegistry}) act on the <em>current</em> context: the one {@link #enter() entered} by
+ * the calling thread, otherwise the most recently started context that is not closed. Applications
+ * running a single context never need to enter it. Components registered before any context has
+ * started go to the context started next.
+ * </p>
+ * <pre>{@code
+ * try (ApplicationContext first = ITechApplication.run(Main.class);
+ *      ApplicationContext second = ITechApplication.run(Main.class)) {
+ *     Service service = first.getComponent(Service.class).orElseThrow();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class ApplicationContext implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ApplicationContext.class);
+
+    private static final ThreadLocal<ApplicationContext> bound = new ThreadLocal<>();
+    // number of threads inside enter(), so lookups skip the thread local while there are none
+    private static final AtomicInteger bindings = new AtomicInteger();
+    // started contexts not closed yet, most recent last
+    private static final Deque<ApplicationContext> open = new ArrayDeque<>();
+    private static ApplicationContext pending = new ApplicationContext();
+    private static volatile ApplicationContext active = pending;
+
+    private final ComponentContainer components = new ComponentContainer();
+    private final Properties properties = new Properties();
+    private final CleanupTasks cleanupTasks = new CleanupTasks();
+    private final DataStorageBindings dataStorageBindings = new DataStorageBindings();
+    private volatile Class<?> mainClass;
+    private volatile StartupReport startupReport;
+    private Thread shutdownHook;
+    private boolean closed;
+
+    private ApplicationContext() {
+    }
+
+    /**
+     * @return the context entered by the calling thread, otherwise the most recently started open
+     * context, otherwise the context the next {@code ITechApplication.run} will start
+     */
+    public static ApplicationContext current() {
+        if (bindings.get() != 0) {
+            ApplicationContext context = bound.get();
+            if (context != null) return context;
+        }
+        return active;
+    }
+
+    /**
+     * Takes the context collecting registrations made before startup. While no other context is
+     * open, it stays current for threads that have not entered a context.
+     */
+    static ApplicationContext create() {
+        synchronized (ApplicationContext.class) {
+            ApplicationContext context = pending;
+            pending = new ApplicationContext();
+            return context;
+        }
+    }
+
+    /**
+     * Makes this context current for the calling thread until the scope is closed.
+     */
+    public Scope enter() {
+        ApplicationContext previous = bound.get();
+        bound.set(this);
+        bindings.incrementAndGet();
+        return new Scope(previous);
+    }
+
+    /**
+     * @return an executor running every task on {@code executor} with this context entered
+     */
+    @SuppressWarnings("try")
+    public Executor bind(Executor executor) {
+        return task -> executor.execute(() -> {
+            try (Scope ignored = enter()) {
+                task.run();
+            }
+        });
+    }
+
+    /**
+     * Marks the context as started and current, and closes it when the JVM shuts down.
+     */
+    void started(Class<?> mainClass, StartupReport startupReport) {
+        this.mainClass = mainClass;
+        this.startupReport = startupReport;
+        synchronized (ApplicationContext.class) {
+            if (closed) return;
+            open.addLast(this);
+            active = this;
+            shutdownHook = new Thread(this::close, "itech-shutdown-" + mainClass.getSimpleName());
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Runs the cleanup tasks of the context. Closing an already closed context has no effect.
+     */
+    @Override
+    @SuppressWarnings("try")
+    public void close() {
+        synchronized (ApplicationContext.class) {
+            if (closed) return;
+            closed = true;
+            open.remove(this);
+            if (active == this) active = open.isEmpty() ? pending : open.getLast();
+            if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                } catch (IllegalStateException e) {
+                    // the JVM is already shutting down and runs the hook
+                }
+            }
+        }
+        logger.debug("Closing application context of {}", mainClass == null ? "unstarted application" : mainClass.getName());
+        try (Scope ignored = enter()) {
+            cleanupTasks.cleanup();
+        }
+    }
+
+    public boolean isClosed() {
+        synchronized (ApplicationContext.class) {
+            return closed;
+        }
+    }
+
+    public Object getComponent(String key) {
+        return components.getComponent(key);
+    }
+
+    public <T> Optional<T> getComponent(Class<T> componentType) {
+        return components.getComponent(componentType);
+    }
+
+    public <T> List<T> getComponentsOfType(Class<T> type) {
+        return components.getComponentsOfType(type);
+    }
+
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * @return the main class the context was started with, or {@code null} before startup
+     */
+    public Class<?> getMainClass() {
+        return mainClass;
+    }
+
+    /**
+     * @return the timeline of the startup of this context, or {@code null} before it has completed
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    public ComponentContainer getComponents() {
+        return components;
+    }
+
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public CleanupTasks getCleanupTasks() {
+        return cleanupTasks;
+    }
+
+    public DataStorageBindings getDataStorageBindings() {
+        return dataStorageBindings;
+    }
+
+    /**
+     * Restores the context the thread had entered before, if any.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final ApplicationContext previous;
+
+        private Scope(ApplicationContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                bound.remove();
+            } else {
+                bound.set(previous);
+            }
+            bindings.decrementAndGet();
+        }
+    }
+}
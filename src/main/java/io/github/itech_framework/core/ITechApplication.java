@@ -3,6 +3,10 @@ package io.github.itech_framework.core;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
+import io.github.itech_framework.core.startup.AppCds;
+import io.github.itech_framework.core.startup.StartupReport;
+
+import java.util.concurrent.Executor;
 
 /**
  * Main application class for ITech Annotation Framework.
@@ -22,6 +26,8 @@ public class ITechApplication {
      * Initializes and starts the ITech framework application
      * @param clazz The main application class used as the starting point 
      *              for component scanning and dependency injection setup
+     * @return the new application context; it is closed, running its cleanup tasks, by
+     *         {@link ApplicationContext#close()} or when the JVM shuts down
      * @throws RuntimeException if the application fails to initialize 
      *         components properly. The exception will contain the root 
      *         cause of the failure
@@ -32,14 +38,56 @@ public class ITechApplication {
      *   <li>Set up dependency injection context</li>
      *   <li>Handle any initialization errors by logging and rethrowing</li>
      * </ul>
+     * Every call starts a new {@link ApplicationContext} isolated from those started before; scan
+     * results and reflection metadata are shared, so later contexts start faster.
+     * With {@code -Ditech.cds.training=<file>} the method instead performs an AppCDS training run:
+     * it writes the loaded classes to the file after startup and exits the JVM, see {@link AppCds}.
+     */
+    @SuppressWarnings("try")
+    public static ApplicationContext run(Class<?> clazz) {
+        ApplicationContext context = ApplicationContext.create();
+        try (ApplicationContext.Scope ignored = context.enter()) {
+            context.started(clazz, ComponentProcessor.initialize(clazz));
+            logger.debug("Components initialized!");
+            return context;
+        } catch (Exception e) {
+            logger.error("Application fails to start! {}", e.getMessage());
+            context.close();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Initializes and starts the application, constructing and wiring independent
+     * components concurrently on the given executor
+     * @param clazz The main application class
+     * @param executor Executor for component construction and wiring; it is not shut down
+     * @return the new application context
+     * @throws RuntimeException if the application fails to initialize components properly
+     * @see #run(Class)
      */
-    public static void run(Class<?> clazz) {
-        try {
-            ComponentProcessor.initialize(clazz);
+    @SuppressWarnings("try")
+    public static ApplicationContext run(Class<?> clazz, Executor executor) {
+        ApplicationContext context = ApplicationContext.create();
+        try (ApplicationContext.Scope ignored = context.enter()) {
+            context.started(clazz, ComponentProcessor.initialize(clazz, executor));
             logger.debug("Components initialized!");
+            return context;
         } catch (Exception e) {
             logger.error("Application fails to start! {}", e.getMessage());
+            context.close();
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Returns the timeline of the startup of the current context: phases in order, and the time
+     * spent on each component and {@code @OnInit} method
+     * @return the startup report, or {@code null} if no application has started yet
+     * @see StartupReport
+     * @see ApplicationContext#getStartupReport()
+     */
+    public static StartupReport getStartupReport() {
+        return ApplicationContext.current().getStartupReport();
+    }
 }
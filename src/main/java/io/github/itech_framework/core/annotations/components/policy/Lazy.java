@@ -0,0 +1,33 @@
+package io.github.itech_framework.core.annotations.components.policy;
+
+import io.github.itech_framework.core.annotations.components.Component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defers creation of a component until it is first used
+ * <p>
+ * Instead of the component, a lightweight proxy implementing its interfaces is registered
+ * at startup. The first call on the proxy, or the first lookup of the component's own key in
+ * {@link io.github.itech_framework.core.store.ComponentStore}, constructs the component,
+ * injects its fields and runs its {@code @OnInit} methods, exactly once.
+ * </p>
+ *
+ * <p>Notes:</p>
+ * <ul>
+ *   <li>Inject lazy components through their interfaces; a component that is injected
+ *       by its own class into an eager component is created eagerly</li>
+ *   <li>Calls on {@code equals} and {@code hashCode} of the proxy do not create the component</li>
+ * </ul>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ * @see Component
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface Lazy {
+}
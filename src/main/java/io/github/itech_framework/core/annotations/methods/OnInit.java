@@ -49,4 +49,38 @@ public @interface OnInit {
      * @return The initialization priority value
      */
     int order() default 0;
+
+    /**
+     * Runs the method on a dedicated {@code itech-init-N} thread instead of blocking the
+     * component's initialization
+     * <p>
+     * Startup continues with other methods and components while the method runs, whatever the
+     * number of startup threads; {@code ITechApplication.run} returns only after it has completed,
+     * and the threads end with the startup. A method may instead return a
+     * {@link java.util.concurrent.CompletableFuture}, which is awaited the same way.
+     * </p>
+     * <p>
+     * Example:
+     * <pre>{@code
+     * @OnInit(async = true)
+     * void warmCache() {...}
+     *
+     * @OnInit
+     * CompletableFuture<Void> connect() {...}
+     * }</pre>
+     * </p>
+     * @return {@code true} to run the method asynchronously
+     */
+    boolean async() default false;
+
+    /**
+     * Components that must be fully initialized before this method runs
+     * <p>
+     * Waits for all {@code @OnInit} methods of the listed components, including asynchronous
+     * methods and returned futures. Components are identified by their registered class or
+     * interface.
+     * </p>
+     * @return The components this method depends on
+     */
+    Class<?>[] dependsOn() default {};
 }
\ No newline at end of file
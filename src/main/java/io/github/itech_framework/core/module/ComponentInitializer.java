@@ -1,5 +1,41 @@
 package io.github.itech_framework.core.module;
 
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Module hook for scanned classes, enabled by {@code @EnableApiClient}.
+ * <p>
+ * Implementations are loaded once per startup through {@link java.util.ServiceLoader} and
+ * receive, before any component is created, all scanned classes carrying one of their
+ * {@link #supportedAnnotationTypes() supported annotations}.
+ * </p>
+ */
 public interface ComponentInitializer {
     void initializeComponent(Class<?> clazz);
+
+    /**
+     * Handles the scanned classes routed to this initializer in one pass.
+     * <p>
+     * Called once per startup. The default calls {@link #initializeComponent} for each class;
+     * override it to batch the work or to process classes in parallel.
+     * </p>
+     *
+     * @param classes the matching classes, never empty
+     */
+    default void initializeComponents(List<Class<?>> classes) {
+        for (Class<?> clazz : classes) {
+            initializeComponent(clazz);
+        }
+    }
+
+    /**
+     * Fully qualified names of the annotations this initializer handles, matched directly or as
+     * meta-annotations. Only classes carrying one of them are scanned for and routed here.
+     *
+     * @return the annotation names, or an empty set (the default) to receive every annotated class
+     */
+    default Set<String> supportedAnnotationTypes() {
+        return Set.of();
+    }
 }
@@ -0,0 +1,522 @@
+package io.github.itech_framework.core.processor.annotation_processor;
+
+import io.github.itech_framework.core.annotations.components.policy.DisableLoaded;
+import io.github.itech_framework.core.annotations.components.policy.Lazy;
+import io.github.itech_framework.core.annotations.constructor.DefaultConstructor;
+import io.github.itech_framework.core.annotations.methods.OnInit;
+import io.github.itech_framework.core.annotations.methods.PreDestroy;
+import io.github.itech_framework.core.annotations.parameters.DefaultParameter;
+import io.github.itech_framework.core.annotations.properties.Property;
+import io.github.itech_framework.core.annotations.reactives.Rx;
+import io.github.itech_framework.core.annotations.storage.DataStorage;
+import io.github.itech_framework.core.processor.components_processor.ComponentBindings;
+import io.github.itech_framework.core.processor.components_processor.GeneratedComponentContext;
+import io.github.itech_framework.core.processor.components_processor.MemberAccess;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the {@link GeneratedComponentContext} of builds run with {@code -Aitech.generateContext=true}.
+ * <p>
+ * The components of each package are written into public {@link MemberAccess} classes in that
+ * package ({@code ITechComponents_0}, {@code ITechComponents_1}, ...), so package-private members
+ * are called directly. The context of a {@code @ComponentScan} class calls the access classes under
+ * its base package. A component is left out, and processed reflectively at startup, when the
+ * generated code cannot reach one of its members: private members, final or static fields, fields
+ * or parameters typed by a type variable, or types not visible from the component's package.
+ * </p>
+ */
+final class ComponentContextWriter {
+    static final String ACCESS_CLASS = "ITechComponents_";
+
+    // members per access class, keeping generated methods and constant pools far below class file limits
+    private static final int MAX_MEMBERS = 512;
+
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\""
+            + ComponentIndexProcessor.class.getName() + "\")\n";
+
+    private final ProcessingEnvironment processingEnv;
+    private final ComponentIndexProcessor processor;
+    private final Map<String, List<ComponentModel>> pending = new TreeMap<>();
+    private final Set<String> seen = new HashSet<>();
+    private final Map<String, Integer> accessClassCounts = new HashMap<>();
+    private final List<String> accessClasses = new ArrayList<>();
+
+    private enum FieldKind { PROPERTY, RX, DATA_STORAGE }
+
+    private record FieldModel(FieldKind kind, VariableElement field, TypeElement owner, Map<String, Object> values) {
+    }
+
+    private record ComponentModel(TypeElement type, boolean lazy, boolean disableLoaded, ExecutableElement constructor,
+                                  List<FieldModel> fields, List<ExecutableElement> initMethods,
+                                  List<ExecutableElement> preDestroyMethods) {
+        int members() {
+            int members = 1 + fields.size() + initMethods.size() + preDestroyMethods.size();
+            if (constructor != null) members += constructor.getParameters().size();
+            for (ExecutableElement method : initMethods) members += method.getParameters().size();
+            return members;
+        }
+    }
+
+    ComponentContextWriter(ProcessingEnvironment processingEnv, ComponentIndexProcessor processor) {
+        this.processingEnv = processingEnv;
+        this.processor = processor;
+    }
+
+    /**
+     * Queues a component for the access class of its package, unless the generated code cannot handle it.
+     */
+    void addComponent(TypeElement type) {
+        if (!seen.add(type.getQualifiedName().toString())) return;
+        ComponentModel model = describe(type);
+        if (model == null || model.members() > MAX_MEMBERS) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Component " + type.getQualifiedName() + " is processed reflectively at startup", type);
+            return;
+        }
+        pending.computeIfAbsent(packageOf(type), p -> new ArrayList<>()).add(model);
+    }
+
+    /**
+     * Writes the access classes of the components queued since the last call.
+     */
+    void writeAccessClasses() {
+        for (Map.Entry<String, List<ComponentModel>> entry : pending.entrySet()) {
+            List<ComponentModel> chunk = new ArrayList<>();
+            int members = 0;
+            for (ComponentModel model : entry.getValue()) {
+                if (!chunk.isEmpty() && members + model.members() > MAX_MEMBERS) {
+                    writeAccessClass(entry.getKey(), chunk);
+                    chunk = new ArrayList<>();
+                    members = 0;
+                }
+                chunk.add(model);
+                members += model.members();
+            }
+            writeAccessClass(entry.getKey(), chunk);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Writes the context of a {@code @ComponentScan} class from the access classes written so far.
+     */
+    void writeContext(TypeElement main, String basePackage) {
+        Elements elements = processingEnv.getElementUtils();
+        String contextName = GeneratedComponentContext.contextClassName(elements.getBinaryName(main).toString());
+        int packageEnd = contextName.lastIndexOf('.');
+
+        StringBuilder source = new StringBuilder();
+        if (packageEnd > 0) {
+            source.append("package ").append(contextName, 0, packageEnd).append(";\n\n");
+        }
+        source.append(GENERATED)
+                .append("public final class ").append(contextName.substring(packageEnd + 1))
+                .append(" implements ").append(GeneratedComponentContext.class.getName()).append(" {\n")
+                .append("    @Override\n")
+                .append("    public void register(").append(ComponentBindings.class.getName()).append(" bindings) {\n");
+        for (String accessClass : accessClasses) {
+            String accessPackage = accessClass.substring(0, accessClass.lastIndexOf('.'));
+            if (basePackage.isEmpty() || accessPackage.equals(basePackage) || accessPackage.startsWith(basePackage + ".")) {
+                source.append("        ").append(accessClass).append(".register(bindings);\n");
+            }
+        }
+        source.append("    }\n}\n");
+        write(contextName, source, main);
+    }
+
+    private ComponentModel describe(TypeElement type) {
+        String pkg = packageOf(type);
+        if (pkg.isEmpty() || type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !isAccessible(type, pkg)) {
+            return null;
+        }
+        for (Element enclosing = type; enclosing instanceof TypeElement nested; enclosing = enclosing.getEnclosingElement()) {
+            if (nested.getNestingKind() == NestingKind.LOCAL || nested.getNestingKind() == NestingKind.ANONYMOUS
+                    || (nested.getNestingKind() == NestingKind.MEMBER && !nested.getModifiers().contains(Modifier.STATIC))) {
+                return null;
+            }
+        }
+
+        ExecutableElement constructor = chooseConstructor(type);
+        if (constructor != null && !isCallable(constructor, pkg)) return null;
+
+        List<FieldModel> fields = new ArrayList<>();
+        for (TypeElement owner = type; owner != null; owner = superclassOf(owner)) {
+            for (VariableElement field : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+                List<FieldModel> injections = fieldInjections(field, owner);
+                if (injections.isEmpty()) continue;
+                Set<Modifier> modifiers = field.getModifiers();
+                boolean visible = modifiers.contains(Modifier.PUBLIC) || packageOf(owner).equals(pkg);
+                if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+                        || modifiers.contains(Modifier.FINAL) || !visible || !isAccessible(owner, pkg)
+                        || !isAccessible(field.asType(), pkg)) {
+                    return null;
+                }
+                for (FieldModel injection : injections) {
+                    TypeMirror componentType = componentType(injection);
+                    if (componentType != null && !isAccessible(componentType, pkg)) return null;
+                }
+                fields.addAll(injections);
+            }
+        }
+
+        List<ExecutableElement> initMethods = new ArrayList<>();
+        List<ExecutableElement> preDestroyMethods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            boolean init = processor.findDirectAnnotation(method, OnInit.class.getName()) != null;
+            boolean preDestroy = processor.findDirectAnnotation(method, PreDestroy.class.getName()) != null;
+            if (!init && !preDestroy) continue;
+            if (!isCallable(method, pkg)) return null;
+            if (init) {
+                for (Object dependency : (List<?>) annotationValues(method, OnInit.class).get("dependsOn")) {
+                    if (!isAccessible((TypeMirror) ((AnnotationValue) dependency).getValue(), pkg)) return null;
+                }
+                initMethods.add(method);
+            }
+            // @PreDestroy methods are invoked without arguments
+            if (preDestroy) {
+                if (!method.getParameters().isEmpty()) return null;
+                preDestroyMethods.add(method);
+            }
+        }
+        initMethods.sort(Comparator.comparingInt(method -> (Integer) annotationValues(method, OnInit.class).get("order")));
+
+        return new ComponentModel(type,
+                processor.findAnnotation(type, Lazy.class.getName()) != null,
+                processor.findAnnotation(type, DisableLoaded.class.getName()) != null,
+                constructor, fields, initMethods, preDestroyMethods);
+    }
+
+    /**
+     * @return the constructor startup would pick whatever components are available, or {@code null}
+     * when startup chooses it from the components
+     */
+    private ExecutableElement chooseConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        List<ExecutableElement> annotated = constructors.stream()
+                .filter(constructor -> processor.findDirectAnnotation(constructor, DefaultConstructor.class.getName()) != null)
+                .toList();
+        if (annotated.size() == 1) return annotated.get(0);
+        if (!annotated.isEmpty()) return null;
+        return constructors.stream()
+                .filter(constructor -> constructor.getParameters().isEmpty())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<FieldModel> fieldInjections(VariableElement field, TypeElement owner) {
+        // same order as the reflective injection of a field with several annotations
+        List<FieldModel> injections = new ArrayList<>();
+        if (processor.findDirectAnnotation(field, Property.class.getName()) != null) {
+            injections.add(new FieldModel(FieldKind.PROPERTY, field, owner, annotationValues(field, Property.class)));
+        }
+        if (processor.findDirectAnnotation(field, Rx.class.getName()) != null) {
+            injections.add(new FieldModel(FieldKind.RX, field, owner, annotationValues(field, Rx.class)));
+        }
+        if (processor.findDirectAnnotation(field, DataStorage.class.getName()) != null) {
+            injections.add(new FieldModel(FieldKind.DATA_STORAGE, field, owner, annotationValues(field, DataStorage.class)));
+        }
+        return injections;
+    }
+
+    /**
+     * @return {@code T} of an unnamed {@code @Rx List<T>} or {@code Map<String, T>} field, decided as at
+     * runtime, or {@code null} for fields injected by key
+     */
+    private TypeMirror componentType(FieldModel field) {
+        if (field.kind() != FieldKind.RX || !"".equals(field.values().get("name"))) return null;
+        TypeMirror type = field.field().asType();
+        if (type.getKind() != TypeKind.DECLARED) return null;
+        String erasure = typeName(type);
+        boolean map = erasure.equals(Map.class.getName());
+        if (!map && !erasure.equals(List.class.getName())) return null;
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.isEmpty()) return null;
+        if (map && !(arguments.get(0).getKind() == TypeKind.DECLARED
+                && typeName(arguments.get(0)).equals(String.class.getName()))) {
+            return null;
+        }
+        TypeMirror argument = arguments.get(arguments.size() - 1);
+        if (argument instanceof WildcardType wildcard) {
+            if (wildcard.getSuperBound() != null || wildcard.getExtendsBound() == null) return null;
+            argument = wildcard.getExtendsBound();
+        }
+        if (argument.getKind() != TypeKind.DECLARED || typeName(argument).equals(Object.class.getName())) return null;
+        return argument;
+    }
+
+    private boolean isCallable(ExecutableElement executable, String pkg) {
+        if (executable.getModifiers().contains(Modifier.PRIVATE)) return false;
+        // the MemberAccess methods throw Exception
+        Elements elements = processingEnv.getElementUtils();
+        TypeMirror exception = elements.getTypeElement(Exception.class.getName()).asType();
+        TypeMirror error = elements.getTypeElement(Error.class.getName()).asType();
+        for (TypeMirror thrown : executable.getThrownTypes()) {
+            if (!processingEnv.getTypeUtils().isAssignable(thrown, exception)
+                    && !processingEnv.getTypeUtils().isAssignable(thrown, error)) {
+                return false;
+            }
+        }
+        for (VariableElement parameter : executable.getParameters()) {
+            if (!isAccessible(parameter.asType(), pkg)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the erasure of the type can be named from the package
+     */
+    private boolean isAccessible(TypeMirror type, String pkg) {
+        if (type.getKind().isPrimitive()) return true;
+        if (type.getKind() == TypeKind.ARRAY) return isAccessible(((ArrayType) type).getComponentType(), pkg);
+        if (type.getKind() != TypeKind.DECLARED) return false;
+        return isAccessible((TypeElement) ((DeclaredType) type).asElement(), pkg);
+    }
+
+    private boolean isAccessible(TypeElement type, String pkg) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) return false;
+            if (!modifiers.contains(Modifier.PUBLIC) && !packageOf((TypeElement) element).equals(pkg)) return false;
+        }
+        return true;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private String packageOf(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    /**
+     * @return the annotation's values by name, defaults included
+     */
+    private Map<String, Object> annotationValues(Element element, Class<?> annotationType) {
+        AnnotationMirror mirror = processor.findDirectAnnotation(element, annotationType.getName());
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            values.put(value.getKey().getSimpleName().toString(), value.getValue().getValue());
+        }
+        return values;
+    }
+
+    private void writeAccessClass(String pkg, List<ComponentModel> components) {
+        int number = accessClassCounts.merge(pkg, 1, Integer::sum) - 1;
+        String simpleName = ACCESS_CLASS + number;
+        AccessClass access = new AccessClass();
+        for (ComponentModel component : components) {
+            access.add(component);
+        }
+
+        StringBuilder source = new StringBuilder("package ").append(pkg).append(";\n\n")
+                .append(GENERATED)
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements ").append(MemberAccess.class.getName()).append(" {\n")
+                .append("    private static final ").append(simpleName).append(" ACCESS = new ").append(simpleName).append("();\n\n")
+                .append("    private ").append(simpleName).append("() {\n    }\n\n")
+                .append("    public static void register(").append(ComponentBindings.class.getName()).append(" bindings) {\n")
+                .append(access.registration)
+                .append("    }\n");
+        appendSwitch(source, "Object newInstance(int constructor, Object[] args) throws Exception", "constructor", access.constructors);
+        appendSwitch(source, "Object get(int field, Object instance)", "field", access.getters);
+        appendSwitch(source, "void set(int field, Object instance, Object value)", "field", access.setters);
+        appendSwitch(source, "Object invoke(int method, Object instance, Object[] args) throws Exception", "method", access.methods);
+        source.append("}\n");
+
+        String className = pkg + "." + simpleName;
+        if (write(className, source, components.stream().map(ComponentModel::type).toArray(Element[]::new))) {
+            accessClasses.add(className);
+        }
+    }
+
+    private static void appendSwitch(StringBuilder source, String signature, String selector, List<String> cases) {
+        source.append("\n    @Override\n    public ").append(signature).append(" {\n")
+                .append("        switch (").append(selector).append(") {\n");
+        for (int i = 0; i < cases.size(); i++) {
+            source.append("            case ").append(i).append(":\n")
+                    .append("                ").append(cases.get(i)).append('\n');
+        }
+        source.append("            default:\n")
+                .append("                throw new IllegalArgumentException(\"Unknown ").append(selector)
+                .append(" \" + ").append(selector).append(");\n")
+                .append("        }\n    }\n");
+    }
+
+    private boolean write(String className, CharSequence source, Element... originatingElements) {
+        try {
+            try (Writer writer = processingEnv.getFiler().createSourceFile(className, originatingElements).openWriter()) {
+                writer.write(source.toString());
+            }
+            return true;
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write generated component context " + className + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Source of one access class: the {@code register} body and the cases of each {@link MemberAccess} method,
+     * numbered by their position.
+     */
+    private final class AccessClass {
+        private final StringBuilder registration = new StringBuilder();
+        private final List<String> constructors = new ArrayList<>();
+        private final List<String> getters = new ArrayList<>();
+        private final List<String> setters = new ArrayList<>();
+        private final List<String> methods = new ArrayList<>();
+
+        void add(ComponentModel component) {
+            String type = typeName(component.type().asType());
+            registration.append("        bindings.component(").append(type).append(".class, ")
+                    .append(component.lazy()).append(", ").append(component.disableLoaded()).append(")");
+
+            if (component.constructor() != null) {
+                List<? extends VariableElement> parameters = component.constructor().getParameters();
+                registration.append("\n                .constructor(ACCESS, ").append(constructors.size()).append(", ")
+                        .append(parameterArrays(parameters)).append(")");
+                constructors.add("return new " + type + "(" + arguments(parameters) + ");");
+            }
+
+            for (FieldModel field : component.fields()) {
+                String name = field.field().getSimpleName().toString();
+                String fieldType = typeName(field.field().asType());
+                int id = getters.size();
+                registration.append("\n                .");
+                switch (field.kind()) {
+                    case PROPERTY -> registration.append("property(ACCESS, ").append(id).append(", ").append(literal(name))
+                            .append(", ").append(fieldType).append(".class, ").append(literal(field.values().get("key")))
+                            .append(", ").append(literal(field.values().get("defaultValue"))).append(")");
+                    case RX -> {
+                        TypeMirror componentType = componentType(field);
+                        if (componentType != null) {
+                            registration.append("rxComponents(ACCESS, ").append(id).append(", ").append(literal(name))
+                                    .append(", ").append(fieldType).append(".class, ").append(typeName(componentType))
+                                    .append(".class)");
+                        } else {
+                            registration.append("rx(ACCESS, ").append(id).append(", ").append(literal(name))
+                                    .append(", ").append(fieldType).append(".class, ")
+                                    .append(literal(field.values().get("name"))).append(")");
+                        }
+                    }
+                    case DATA_STORAGE -> registration.append("dataStorage(ACCESS, ").append(id).append(", ")
+                            .append(literal(name)).append(", ").append(fieldType).append(".class, ")
+                            .append(literal(field.values().get("key"))).append(", ")
+                            .append(literal(field.values().get("defaultValue"))).append(")");
+                }
+                String target = "((" + typeName(field.owner().asType()) + ") instance)." + name;
+                getters.add("return " + target + ";");
+                setters.add(target + " = (" + fieldType + ") value;\n                return;");
+            }
+
+            for (ExecutableElement method : component.initMethods()) {
+                Map<String, Object> onInit = annotationValues(method, OnInit.class);
+                StringBuilder dependsOn = new StringBuilder("new Class<?>[]{");
+                List<?> dependencies = (List<?>) onInit.get("dependsOn");
+                for (int i = 0; i < dependencies.size(); i++) {
+                    if (i > 0) dependsOn.append(", ");
+                    dependsOn.append(typeName((TypeMirror) ((AnnotationValue) dependencies.get(i)).getValue())).append(".class");
+                }
+                dependsOn.append('}');
+                registration.append("\n                .onInit(ACCESS, ").append(methods.size()).append(", ")
+                        .append(literal(method.getSimpleName().toString())).append(", ").append(onInit.get("async"))
+                        .append(", ").append(dependsOn).append(", ").append(parameterArrays(method.getParameters())).append(")");
+                methods.add(invocation(type, method));
+            }
+
+            for (ExecutableElement method : component.preDestroyMethods()) {
+                registration.append("\n                .preDestroy(ACCESS, ").append(methods.size()).append(", ")
+                        .append(literal(method.getSimpleName().toString())).append(")");
+                methods.add(invocation(type, method));
+            }
+            registration.append(";\n");
+        }
+
+        private String invocation(String type, ExecutableElement method) {
+            String target = method.getModifiers().contains(Modifier.STATIC) ? type : "((" + type + ") instance)";
+            String call = target + "." + method.getSimpleName() + "(" + arguments(method.getParameters()) + ");";
+            return method.getReturnType().getKind() == TypeKind.VOID
+                    ? call + "\n                return null;"
+                    : "return " + call;
+        }
+
+        private String parameterArrays(List<? extends VariableElement> parameters) {
+            StringBuilder names = new StringBuilder("new String[]{");
+            StringBuilder types = new StringBuilder("new Class<?>[]{");
+            StringBuilder defaults = new StringBuilder("new String[]{");
+            for (int i = 0; i < parameters.size(); i++) {
+                VariableElement parameter = parameters.get(i);
+                if (i > 0) {
+                    names.append(", ");
+                    types.append(", ");
+                    defaults.append(", ");
+                }
+                names.append(literal(parameter.getSimpleName().toString()));
+                types.append(typeName(parameter.asType())).append(".class");
+                AnnotationMirror defaultParameter = processor.findDirectAnnotation(parameter, DefaultParameter.class.getName());
+                defaults.append(defaultParameter == null ? "null"
+                        : literal(annotationValues(parameter, DefaultParameter.class).get("value")));
+            }
+            return names + "}, " + types + "}, " + defaults + "}";
+        }
+
+        private String arguments(List<? extends VariableElement> parameters) {
+            StringBuilder arguments = new StringBuilder();
+            for (int i = 0; i < parameters.size(); i++) {
+                if (i > 0) arguments.append(", ");
+                arguments.append('(').append(typeName(parameters.get(i).asType())).append(") args[").append(i).append(']');
+            }
+            return arguments.toString();
+        }
+    }
+
+    /**
+     * @return the source name of the type's erasure, without type annotations
+     */
+    private String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) return type.getKind().name().toLowerCase(Locale.ROOT);
+        if (type.getKind() == TypeKind.ARRAY) return typeName(((ArrayType) type).getComponentType()) + "[]";
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    }
+
+    private String literal(Object value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+}
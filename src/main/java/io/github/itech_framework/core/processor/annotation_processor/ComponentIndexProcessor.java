@@ -0,0 +1,266 @@
+package io.github.itech_framework.core.processor.annotation_processor;
+
+import io.github.itech_framework.core.annotations.ComponentScan;
+import io.github.itech_framework.core.annotations.components.Component;
+import io.github.itech_framework.core.annotations.components.IgnoreInterfaces;
+import io.github.itech_framework.core.annotations.components.levels.BusinessLogic;
+import io.github.itech_framework.core.annotations.components.levels.DataAccess;
+import io.github.itech_framework.core.annotations.components.levels.Presentation;
+import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
+import io.github.itech_framework.core.processor.components_processor.GeneratedComponentContext;
+import io.github.itech_framework.core.utils.ComponentIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compile-time processor that writes {@value ComponentIndex#INDEX_LOCATION}.
+ * <p>
+ * Records every class carrying {@link Component} (directly or through a stereotype such as
+ * {@link DataAccess}, {@link BusinessLogic} or {@link Presentation}) together with its
+ * component key, tier level and registered interfaces. JPA entities are recorded as well so
+ * that entity validation still happens when startup reads the index instead of scanning.
+ * </p>
+ * <p>
+ * The processor is picked up automatically from the framework jar through
+ * {@code META-INF/services/javax.annotation.processing.Processor}. Entries of a previous
+ * build are kept for classes that still exist, so incremental compilation does not shrink
+ * the index.
+ * </p>
+ * <p>
+ * With {@code -Aitech.generateContext=true} the processor also generates a
+ * {@link GeneratedComponentContext} for every {@code @ComponentScan} class, see
+ * {@link ComponentContextWriter}.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(GeneratedComponentContext.GENERATE_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    private final Map<String, ComponentIndex.Entry> entries = new TreeMap<>();
+    private boolean previousIndexMerged = false;
+    private ComponentContextWriter contextWriter;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        Map<String, String> options = processingEnv.getOptions();
+        if (options.containsKey(GeneratedComponentContext.GENERATE_OPTION)
+                && !"false".equals(options.get(GeneratedComponentContext.GENERATE_OPTION))) {
+            contextWriter = new ComponentContextWriter(processingEnv, this);
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!previousIndexMerged) {
+            mergePreviousIndex();
+            previousIndexMerged = true;
+        }
+        // classes compiled in this round are re-indexed from scratch
+        for (Element root : roundEnv.getRootElements()) {
+            forgetPreviousEntries(root);
+        }
+
+        for (TypeElement annotation : annotations) {
+            boolean component = isComponentAnnotation(annotation);
+            boolean entity = ComponentProcessor.JPA_ENTITY_ANNOTATIONS.contains(annotation.getQualifiedName().toString());
+            if (!component && !entity) continue;
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) continue;
+                TypeElement type = (TypeElement) element;
+                ComponentIndex.Entry entry = component ? componentEntry(type) : entityEntry(type);
+                entries.merge(entry.className(), entry, (existing, added) -> existing.isComponent() ? existing : added);
+                if (component && contextWriter != null) {
+                    contextWriter.addComponent(type);
+                }
+            }
+        }
+
+        if (contextWriter != null && !roundEnv.processingOver()) {
+            contextWriter.writeAccessClasses();
+            TypeElement componentScan = processingEnv.getElementUtils().getTypeElement(ComponentScan.class.getName());
+            for (Element main : roundEnv.getElementsAnnotatedWith(componentScan)) {
+                if (main instanceof TypeElement type) {
+                    contextWriter.writeContext(type, basePackage(type));
+                }
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private ComponentIndex.Entry componentEntry(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        String className = elements.getBinaryName(type).toString();
+        String name = componentName(type);
+        String key = name.isEmpty() ? className : name;
+
+        List<String> interfaces = new ArrayList<>();
+        if (!hasAnnotation(type, IgnoreInterfaces.class.getName())) {
+            for (TypeMirror iface : type.getInterfaces()) {
+                TypeElement ifaceElement = (TypeElement) ((DeclaredType) iface).asElement();
+                interfaces.add(elements.getBinaryName(ifaceElement).toString());
+            }
+        }
+        return new ComponentIndex.Entry(className, key, componentLevel(type), interfaces);
+    }
+
+    private ComponentIndex.Entry entityEntry(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return new ComponentIndex.Entry(className, "", ComponentIndex.NO_LEVEL, List.of());
+    }
+
+    private boolean isComponentAnnotation(TypeElement annotation) {
+        String name = annotation.getQualifiedName().toString();
+        return name.equals(Component.class.getName()) || hasAnnotation(annotation, Component.class.getName());
+    }
+
+    private String componentName(TypeElement type) {
+        AnnotationMirror component = findAnnotation(type, Component.class.getName());
+        if (component == null) return "";
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : component.getElementValues().entrySet()) {
+            if (value.getKey().getSimpleName().contentEquals("name")) {
+                return (String) value.getValue().getValue();
+            }
+        }
+        return "";
+    }
+
+    private String basePackage(TypeElement main) {
+        AnnotationMirror componentScan = findDirectAnnotation(main, ComponentScan.class.getName());
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(componentScan).entrySet()) {
+            if (value.getKey().getSimpleName().contentEquals("basePackage")) {
+                return (String) value.getValue().getValue();
+            }
+        }
+        return "";
+    }
+
+    private int componentLevel(TypeElement type) {
+        if (hasAnnotation(type, DataAccess.class.getName())) return ComponentProcessor.DATA_ACCESS_LEVEL;
+        if (hasAnnotation(type, BusinessLogic.class.getName())) return ComponentProcessor.BUSINESS_LOGIC_LEVEL;
+        if (hasAnnotation(type, Presentation.class.getName())) return ComponentProcessor.PRESENTATION_LEVEL;
+        return ComponentProcessor.DEFAULT_LEVEL;
+    }
+
+    private boolean hasAnnotation(Element element, String annotationName) {
+        return findAnnotation(element, annotationName) != null;
+    }
+
+    /**
+     * Finds the annotation on the element or, failing that, the nearest meta-annotation of that type.
+     */
+    AnnotationMirror findAnnotation(Element element, String annotationName) {
+        Set<String> visited = new HashSet<>();
+        Deque<Element> pending = new ArrayDeque<>();
+        pending.add(element);
+        while (!pending.isEmpty()) {
+            Element current = pending.poll();
+            AnnotationMirror mirror = findDirectAnnotation(current, annotationName);
+            if (mirror != null) return mirror;
+            for (AnnotationMirror annotation : current.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                String name = annotationType.getQualifiedName().toString();
+                if (!name.startsWith("java.lang.annotation.") && visited.add(name)) {
+                    pending.add(annotationType);
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean hasDirectAnnotation(Element element, String annotationName) {
+        return findDirectAnnotation(element, annotationName) != null;
+    }
+
+    AnnotationMirror findDirectAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private void forgetPreviousEntries(Element element) {
+        if (element instanceof TypeElement type) {
+            entries.remove(processingEnv.getElementUtils().getBinaryName(type).toString());
+            for (Element enclosed : type.getEnclosedElements()) {
+                forgetPreviousEntries(enclosed);
+            }
+        }
+    }
+
+    private void mergePreviousIndex() {
+        try {
+            FileObject previous = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (InputStream input = previous.openInputStream()) {
+                Elements elements = processingEnv.getElementUtils();
+                for (ComponentIndex.Entry entry : ComponentIndex.read(input)) {
+                    // only keep classes that still exist in this compilation
+                    if (elements.getTypeElement(entry.className().replace('$', '.')) != null) {
+                        entries.put(entry.className(), entry);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // no previous index, nothing to merge
+        }
+    }
+
+    private void writeIndex() {
+        if (entries.isEmpty()) return;
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                ComponentIndex.write(writer, entries.values());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write component index: " + e.getMessage());
+        }
+    }
+}
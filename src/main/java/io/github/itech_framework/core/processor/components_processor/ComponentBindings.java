@@ -0,0 +1,166 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the bindings a {@link GeneratedComponentContext} registers: for each component its
+ * {@code @Lazy}/{@code @DisableLoaded} flags, the constructor chosen at compile time, its injected
+ * fields and its lifecycle methods, all reached through a {@link MemberAccess}.
+ * <p>
+ * Example of generated code:
+ * <pre>{@code
+ * bindings.component(UserServiceImpl.class, false, false)
+ *         .constructor(access, 0, new String[]{"repository"}, new Class<?>[]{UserRepository.class}, new String[]{null})
+ *         .rx(access, 0, "cache", Cache.class, "")
+ *         .rxComponents(access, 1, "listeners", List.class, Listener.class)
+ *         .onInit(access, 0, "load", false, new Class<?>[0], new String[0], new Class<?>[0], new String[0]);
+ * }</pre>
+ * </p>
+ * Generated code only; the order of the calls is the order of injection.
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class ComponentBindings {
+    private final Map<String, Binding> bindings = new HashMap<>();
+
+    ComponentBindings() {
+    }
+
+    public Binding component(Class<?> type, boolean lazy, boolean disableLoaded) {
+        Binding binding = new Binding(type, lazy, disableLoaded);
+        bindings.put(type.getName(), binding);
+        return binding;
+    }
+
+    /**
+     * @return the binding of the class, or {@code null} when it is processed reflectively
+     */
+    Binding get(String className) {
+        return bindings.get(className);
+    }
+
+    /**
+     * The generated members of one component. Only constructors that startup would pick regardless
+     * of the available components ({@code @DefaultConstructor} or no-argument) are generated.
+     */
+    public static final class Binding {
+        private final Class<?> type;
+        private final boolean lazy;
+        private final boolean disableLoaded;
+        private InjectionPlan.Factory factory;
+        private final List<InjectionPlan.FieldInjection> fields = new ArrayList<>();
+        private final List<InjectionPlan.LifecycleMethod> initMethods = new ArrayList<>();
+        private final List<InjectionPlan.LifecycleMethod> preDestroyMethods = new ArrayList<>();
+
+        private Binding(Class<?> type, boolean lazy, boolean disableLoaded) {
+            this.type = type;
+            this.lazy = lazy;
+            this.disableLoaded = disableLoaded;
+        }
+
+        public Binding constructor(MemberAccess access, int id, String[] names, Class<?>[] types, String[] defaultValues) {
+            factory = new InjectionPlan.Factory(parameters(names, types, defaultValues), args -> {
+                try {
+                    return access.newInstance(id, args);
+                } catch (Exception e) {
+                    // same failure as a reflective constructor call
+                    throw new InvocationTargetException(e);
+                }
+            });
+            return this;
+        }
+
+        public Binding property(MemberAccess access, int id, String name, Class<?> type, String key, String defaultValue) {
+            fields.add(new InjectionPlan.FieldInjection(name, type, new InjectionPlan.PropertyBinding(key, defaultValue),
+                    null, null, null, accessor(access, id)));
+            return this;
+        }
+
+        /**
+         * @param componentName the {@code @Rx} name, empty to inject by field type
+         */
+        public Binding rx(MemberAccess access, int id, String name, Class<?> type, String componentName) {
+            fields.add(new InjectionPlan.FieldInjection(name, type, null,
+                    componentName.isEmpty() ? type.getName() : componentName, null, null, accessor(access, id)));
+            return this;
+        }
+
+        /**
+         * An unnamed {@code @Rx List<T>} or {@code Map<String, T>} field, injected with every component of the type.
+         */
+        public Binding rxComponents(MemberAccess access, int id, String name, Class<?> type, Class<?> componentType) {
+            fields.add(new InjectionPlan.FieldInjection(name, type, null, type.getName(), componentType, null,
+                    accessor(access, id)));
+            return this;
+        }
+
+        public Binding dataStorage(MemberAccess access, int id, String name, Class<?> type, String key, String defaultValue) {
+            fields.add(new InjectionPlan.FieldInjection(name, type, null, null, null,
+                    new InjectionPlan.StorageBinding(key.isEmpty() ? name : key, defaultValue), accessor(access, id)));
+            return this;
+        }
+
+        public Binding onInit(MemberAccess access, int id, String name, boolean async, Class<?>[] dependsOn,
+                              String[] parameterNames, Class<?>[] parameterTypes, String[] defaultValues) {
+            initMethods.add(new InjectionPlan.LifecycleMethod(name, parameters(parameterNames, parameterTypes, defaultValues),
+                    async, List.of(dependsOn), (instance, args) -> access.invoke(id, instance, args)));
+            return this;
+        }
+
+        public Binding preDestroy(MemberAccess access, int id, String name) {
+            preDestroyMethods.add(new InjectionPlan.LifecycleMethod(name, List.of(), false, List.of(),
+                    (instance, args) -> access.invoke(id, instance, args)));
+            return this;
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+
+        boolean isLazy() {
+            return lazy;
+        }
+
+        boolean isDisableLoaded() {
+            return disableLoaded;
+        }
+
+        /**
+         * @return the plan; without a generated constructor the constructor is still chosen at startup
+         */
+        InjectionPlan toPlan() {
+            return new InjectionPlan(factory, fields, initMethods, preDestroyMethods);
+        }
+
+        private static InjectionPlan.Accessor accessor(MemberAccess access, int id) {
+            return new InjectionPlan.Accessor() {
+                @Override
+                public Object get(Object instance) {
+                    return access.get(id, instance);
+                }
+
+                @Override
+                public void set(Object instance, Object value) {
+                    access.set(id, instance, value);
+                }
+            };
+        }
+
+        private static List<InjectionPlan.ParameterBinding> parameters(String[] names, Class<?>[] types, String[] defaultValues) {
+            if (names.length != types.length || names.length != defaultValues.length) {
+                throw new IllegalArgumentException("Parameter arrays differ in length: " + Arrays.toString(names));
+            }
+            List<InjectionPlan.ParameterBinding> parameters = new ArrayList<>(names.length);
+            for (int i = 0; i < names.length; i++) {
+                parameters.add(new InjectionPlan.ParameterBinding(names[i], types[i], defaultValues[i]));
+            }
+            return parameters;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+import io.github.itech_framework.core.annotations.components.Component;
+import io.github.itech_framework.core.annotations.components.IgnoreInterfaces;
+import io.github.itech_framework.core.annotations.components.levels.BusinessLogic;
+import io.github.itech_framework.core.annotations.components.levels.DataAccess;
+import io.github.itech_framework.core.annotations.components.levels.Presentation;
+import io.github.itech_framework.core.annotations.components.policy.DisableLoaded;
+import io.github.itech_framework.core.annotations.methods.OnInit;
+import io.github.itech_framework.core.annotations.methods.PreDestroy;
+import io.github.itech_framework.core.annotations.properties.Property;
+import io.github.itech_framework.core.annotations.reactives.Rx;
+import io.github.itech_framework.core.annotations.storage.DataStorage;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable reflection metadata of a class, computed once per class and JVM.
+ * <p>
+ * Annotations are resolved transitively: a class annotated with a stereotype inherits the
+ * stereotype's meta-annotations (and theirs), the nearest declaration winning. The descriptor
+ * also records the annotated fields across the class hierarchy and the lifecycle methods, so
+ * processors and modules do not repeat the reflection.
+ * </p>
+ * <p>
+ * Example:
+ * <pre>{@code
+ * ComponentDescriptor descriptor = ComponentDescriptor.of(type);
+ * if (descriptor.isComponent()) {
+ *     registry.registerComponent(descriptor.getKey(), create(type), descriptor.getLevel());
+ * }
+ * }</pre>
+ * </p>
+ */
+public final class ComponentDescriptor {
+    private static final ClassValue<ComponentDescriptor> DESCRIPTORS = new ClassValue<>() {
+        @Override
+        protected ComponentDescriptor computeValue(Class<?> type) {
+            return new ComponentDescriptor(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Map<Class<? extends Annotation>, Annotation> annotations;
+    private final String key;
+    private final int level;
+    private final boolean jpaEntity;
+    private final List<Field> injectableFields;
+    private final Map<String, Field> dataStorageFields;
+    private final List<Method> initMethods;
+    private final List<Method> preDestroyMethods;
+
+    private ComponentDescriptor(Class<?> type) {
+        this.type = type;
+        this.annotations = resolveAnnotations(type);
+
+        Component component = getAnnotation(Component.class);
+        this.key = component == null ? null : component.name().isEmpty() ? type.getName() : component.name();
+        this.level = resolveLevel();
+        this.jpaEntity = annotations.keySet().stream()
+                .anyMatch(annotation -> ComponentProcessor.JPA_ENTITY_ANNOTATIONS.contains(annotation.getName()));
+
+        List<Field> fields = new ArrayList<>();
+        Map<String, Field> storageFields = new LinkedHashMap<>();
+        Class<?> currentClass = type;
+        while (currentClass != null && currentClass != Object.class) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                DataStorage dataStorage = field.getAnnotation(DataStorage.class);
+                if (dataStorage != null) {
+                    storageFields.putIfAbsent(dataStorage.key().isEmpty() ? field.getName() : dataStorage.key(), field);
+                }
+                if (dataStorage != null || field.isAnnotationPresent(Property.class) || field.isAnnotationPresent(Rx.class)) {
+                    fields.add(field);
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+        this.injectableFields = List.copyOf(fields);
+        this.dataStorageFields = Collections.unmodifiableMap(storageFields);
+
+        Method[] methods = type.getDeclaredMethods();
+        this.initMethods = Arrays.stream(methods)
+                .filter(m -> m.isAnnotationPresent(OnInit.class))
+                .sorted(Comparator.comparingInt(m -> m.getAnnotation(OnInit.class).order()))
+                .toList();
+        this.preDestroyMethods = Arrays.stream(methods)
+                .filter(m -> m.isAnnotationPresent(PreDestroy.class))
+                .toList();
+    }
+
+    public static ComponentDescriptor of(Class<?> type) {
+        return DESCRIPTORS.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the annotation types present on the class, directly or as meta-annotations
+     */
+    public Set<Class<? extends Annotation>> getAnnotationTypes() {
+        return annotations.keySet();
+    }
+
+    public boolean hasAnnotation(Class<? extends Annotation> annotationType) {
+        return annotations.containsKey(annotationType);
+    }
+
+    /**
+     * @return the annotation declared directly on the class or, failing that, the nearest meta-annotation
+     */
+    public <A extends Annotation> A getAnnotation(Class<A> annotationType) {
+        return annotationType.cast(annotations.get(annotationType));
+    }
+
+    public boolean isComponent() {
+        return key != null;
+    }
+
+    /**
+     * @return the component key ({@code @Component} name or class name), or {@code null} for non-components
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean isJpaEntity() {
+        return jpaEntity;
+    }
+
+    public boolean isDisableLoaded() {
+        return hasAnnotation(DisableLoaded.class);
+    }
+
+    public boolean isIgnoreInterfaces() {
+        return hasAnnotation(IgnoreInterfaces.class);
+    }
+
+    /**
+     * @return fields with {@code @Property}, {@code @Rx} or {@code @DataStorage}, subclass fields first
+     */
+    public List<Field> getInjectableFields() {
+        return injectableFields;
+    }
+
+    /**
+     * @return the {@code @DataStorage} field bound to the storage key, or {@code null}
+     */
+    public Field getDataStorageField(String storageKey) {
+        return dataStorageFields.get(storageKey);
+    }
+
+    public Map<String, Field> getDataStorageFields() {
+        return dataStorageFields;
+    }
+
+    /**
+     * @return the {@code @OnInit} methods declared by the class, in {@code order}
+     */
+    public List<Method> getInitMethods() {
+        return initMethods;
+    }
+
+    public List<Method> getPreDestroyMethods() {
+        return preDestroyMethods;
+    }
+
+    private int resolveLevel() {
+        if (hasAnnotation(DataAccess.class)) return ComponentProcessor.DATA_ACCESS_LEVEL;
+        if (hasAnnotation(BusinessLogic.class)) return ComponentProcessor.BUSINESS_LOGIC_LEVEL;
+        if (hasAnnotation(Presentation.class)) return ComponentProcessor.PRESENTATION_LEVEL;
+        return ComponentProcessor.DEFAULT_LEVEL;
+    }
+
+    private static Map<Class<? extends Annotation>, Annotation> resolveAnnotations(Class<?> type) {
+        Map<Class<? extends Annotation>, Annotation> resolved = new LinkedHashMap<>();
+        // breadth first, so the annotation nearest to the class wins
+        Deque<Annotation> pending = new ArrayDeque<>(Arrays.asList(type.getAnnotations()));
+        while (!pending.isEmpty()) {
+            Annotation annotation = pending.poll();
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (resolved.containsKey(annotationType) || annotationType.getName().startsWith("java.lang.annotation.")) {
+                continue;
+            }
+            resolved.put(annotationType, annotation);
+            pending.addAll(Arrays.asList(annotationType.getAnnotations()));
+        }
+        return Collections.unmodifiableMap(resolved);
+    }
+}
@@ -0,0 +1,322 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+import io.github.itech_framework.core.exceptions.FrameworkException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Dependency graph of the components of one startup.
+ * <p>
+ * Nodes are scanned component classes (instantiated by the framework) and instances that
+ * modules registered up front. Edges point from a component to the components it needs:
+ * constructor edges must be satisfied before the component can be created, wiring edges
+ * ({@code @Rx} fields, {@code @OnInit} parameters and constructor parameters) before its
+ * {@code @OnInit} methods run.
+ * </p>
+ */
+public class ComponentGraph {
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Node> providers = new HashMap<>();
+
+    public static final class Node {
+        private final Class<?> type;
+        private final String key;
+        private final int level;
+        private final int order;
+        private final List<String> aliases;
+        private final Set<Node> constructorDependencies = new LinkedHashSet<>();
+        private final Set<Node> dependencies = new LinkedHashSet<>();
+        private final Set<Node> keyReferences = new LinkedHashSet<>();
+        private final Set<Node> initDependencies = new LinkedHashSet<>();
+        private final CompletableFuture<Void> initialized = new CompletableFuture<>();
+        private InjectionPlan.Factory factory;
+        private boolean lazy;
+        private boolean disableLoaded;
+        private volatile Object instance;
+
+        private Node(Class<?> type, String key, int level, int order, List<String> aliases, Object instance) {
+            this.type = type;
+            this.key = key;
+            this.level = level;
+            this.order = order;
+            this.aliases = List.copyOf(aliases);
+            this.instance = instance;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * Interface keys the component is registered under besides its own key.
+         */
+        public List<String> getAliases() {
+            return aliases;
+        }
+
+        InjectionPlan.Factory getFactory() {
+            return factory;
+        }
+
+        void setFactory(InjectionPlan.Factory factory) {
+            this.factory = factory;
+        }
+
+        public Object getInstance() {
+            return instance;
+        }
+
+        public void setInstance(Object instance) {
+            this.instance = instance;
+        }
+
+        /**
+         * {@code @Lazy} components are created on first use instead of at startup.
+         */
+        public boolean isLazy() {
+            return lazy;
+        }
+
+        public void setLazy(boolean lazy) {
+            this.lazy = lazy;
+        }
+
+        /**
+         * {@code @DisableLoaded} components are created but neither injected nor initialized.
+         */
+        public boolean isDisableLoaded() {
+            return disableLoaded;
+        }
+
+        public void setDisableLoaded(boolean disableLoaded) {
+            this.disableLoaded = disableLoaded;
+        }
+
+        /**
+         * Dependencies this node refers to by their own key rather than through an interface.
+         */
+        public Set<Node> getKeyReferences() {
+            return keyReferences;
+        }
+
+        /**
+         * Components named in {@code @OnInit(dependsOn)}, whose initialization must complete first.
+         */
+        public Set<Node> getInitDependencies() {
+            return initDependencies;
+        }
+
+        /**
+         * Completes once all {@code @OnInit} methods of the node, including asynchronous ones, have completed.
+         */
+        public CompletableFuture<Void> getInitialized() {
+            return initialized;
+        }
+
+        public Set<Node> getConstructorDependencies() {
+            return constructorDependencies;
+        }
+
+        public Set<Node> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    /**
+     * Adds a component that the framework will instantiate.
+     */
+    public Node addComponent(Class<?> type, String key, int level, List<String> aliases) {
+        Node node = new Node(type, key, level, nodes.size(), aliases, null);
+        nodes.add(node);
+        providers.put(key, node);
+        aliases.forEach(alias -> providers.put(alias, node));
+        return node;
+    }
+
+    /**
+     * Adds an instance that already exists, registered under the given keys.
+     */
+    public Node addInstance(Object instance, int level, Collection<String> keys) {
+        Node node = new Node(instance.getClass(), keys.iterator().next(), level, nodes.size(), List.of(), instance);
+        nodes.add(node);
+        keys.forEach(key -> providers.put(key, node));
+        return node;
+    }
+
+    /**
+     * @return the node registered under the key, or {@code null}
+     */
+    public Node getProvider(String key) {
+        return providers.get(key);
+    }
+
+    public boolean hasProvider(String key) {
+        return providers.containsKey(key);
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the nodes whose class is assignable to the type
+     */
+    public List<Node> getProvidersOfType(Class<?> type) {
+        List<Node> matching = new ArrayList<>();
+        for (Node node : nodes) {
+            if (type.isAssignableFrom(node.type)) matching.add(node);
+        }
+        return matching;
+    }
+
+    public void addConstructorDependency(Node node, Node dependency) {
+        if (node == dependency) {
+            throw new FrameworkException("Component " + node.key + " requires itself in its constructor");
+        }
+        node.constructorDependencies.add(dependency);
+        node.dependencies.add(dependency);
+    }
+
+    public void addDependency(Node node, Node dependency) {
+        if (node != dependency) {
+            node.dependencies.add(dependency);
+        }
+    }
+
+    public void addInitDependency(Node node, Node dependency) {
+        if (node == dependency) {
+            throw new FrameworkException("Component " + node.key + " cannot depend on its own initialization");
+        }
+        node.initDependencies.add(dependency);
+        node.dependencies.add(dependency);
+    }
+
+    public void addKeyReference(Node node, Node dependency) {
+        if (node != dependency) {
+            node.keyReferences.add(dependency);
+        }
+    }
+
+    /**
+     * Orders the nodes so that every node comes after its constructor dependencies.
+     *
+     * @throws FrameworkException if constructor dependencies form a cycle
+     */
+    public List<Node> constructionOrder() {
+        Map<Node, Integer> pending = new IdentityHashMap<>();
+        Map<Node, List<Node>> dependents = new IdentityHashMap<>();
+        Deque<Node> ready = new ArrayDeque<>();
+        for (Node node : nodes) {
+            pending.put(node, node.constructorDependencies.size());
+            for (Node dependency : node.constructorDependencies) {
+                dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(node);
+            }
+            if (node.constructorDependencies.isEmpty()) ready.add(node);
+        }
+
+        List<Node> order = new ArrayList<>(nodes.size());
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            order.add(node);
+            for (Node dependent : dependents.getOrDefault(node, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) ready.add(dependent);
+            }
+        }
+
+        if (order.size() != nodes.size()) {
+            String cycle = nodes.stream()
+                    .filter(node -> pending.get(node) > 0)
+                    .map(Node::getKey)
+                    .collect(Collectors.joining(", "));
+            throw new FrameworkException("Circular constructor dependency between components: " + cycle);
+        }
+        return order;
+    }
+
+    /**
+     * Groups the nodes into strongly connected components of the wiring edges (Tarjan).
+     * <p>
+     * Groups come out dependencies first; nodes inside a group, which depend on each other
+     * through {@code @Rx} cycles, are sorted by tier level and scan order.
+     * </p>
+     */
+    public List<List<Node>> stronglyConnectedComponents() {
+        Map<Node, Integer> index = new IdentityHashMap<>();
+        Map<Node, Integer> lowLink = new IdentityHashMap<>();
+        Set<Node> onStack = java.util.Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> stack = new ArrayDeque<>();
+        List<List<Node>> result = new ArrayList<>();
+        int counter = 0;
+
+        // iterative Tarjan, so deep dependency chains cannot overflow the thread stack
+        for (Node root : nodes) {
+            if (index.containsKey(root)) continue;
+            Deque<Map.Entry<Node, java.util.Iterator<Node>>> work = new ArrayDeque<>();
+            index.put(root, counter);
+            lowLink.put(root, counter++);
+            stack.push(root);
+            onStack.add(root);
+            work.push(Map.entry(root, root.dependencies.iterator()));
+
+            while (!work.isEmpty()) {
+                Node node = work.peek().getKey();
+                java.util.Iterator<Node> edges = work.peek().getValue();
+                if (edges.hasNext()) {
+                    Node next = edges.next();
+                    if (!index.containsKey(next)) {
+                        index.put(next, counter);
+                        lowLink.put(next, counter++);
+                        stack.push(next);
+                        onStack.add(next);
+                        work.push(Map.entry(next, next.dependencies.iterator()));
+                    } else if (onStack.contains(next)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(next)));
+                    }
+                    continue;
+                }
+
+                work.pop();
+                if (!work.isEmpty()) {
+                    Node parent = work.peek().getKey();
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<Node> group = new ArrayList<>();
+                    Node member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        group.add(member);
+                    } while (member != node);
+                    group.sort((a, b) -> a.level != b.level ? Integer.compare(a.level, b.level) : Integer.compare(a.order, b.order));
+                    result.add(group);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -2,6 +2,7 @@ package io.github.itech_framework.core.processor.components_processor;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import io.github.itech_framework.core.ApplicationContext;
 import io.github.itech_framework.core.annotations.ComponentScan;
 import io.github.itech_framework.core.annotations.api_client.EnableApiClient;
 import io.github.itech_framework.core.annotations.components.Component;
@@ -9,11 +10,10 @@ import io.github.itech_framework.core.annotations.components.IgnoreInterfaces;
 import io.github.itech_framework.core.annotations.components.levels.BusinessLogic;
 import io.github.itech_framework.core.annotations.components.levels.DataAccess;
 import io.github.itech_framework.core.annotations.components.levels.Presentation;
-import io.github.itech_framework.core.annotations.components.policy.DisableLoaded;
+import io.github.itech_framework.core.annotations.components.policy.Lazy;
 import io.github.itech_framework.core.annotations.constructor.DefaultConstructor;
 import io.github.itech_framework.core.annotations.jfx.EnableJavaFx;
 import io.github.itech_framework.core.annotations.methods.OnInit;
-import io.github.itech_framework.core.annotations.methods.PreDestroy;
 import io.github.itech_framework.core.annotations.parameters.DefaultParameter;
 import io.github.itech_framework.core.annotations.properties.Property;
 import io.github.itech_framework.core.annotations.reactives.Rx;
@@ -22,18 +22,43 @@ import io.github.itech_framework.core.module.ComponentInitializer;
 import io.github.itech_framework.core.module.ComponentRegistry;
 import io.github.itech_framework.core.module.ModuleInitializer;
 import io.github.itech_framework.core.resourcecs.CleanupRegistry;
+import io.github.itech_framework.core.startup.AppCds;
+import io.github.itech_framework.core.startup.ComponentProcessingEvent;
+import io.github.itech_framework.core.startup.FieldInjectionEvent;
+import io.github.itech_framework.core.startup.InitMethodEvent;
+import io.github.itech_framework.core.startup.StartupRecorder;
+import io.github.itech_framework.core.startup.StartupReport;
+import io.github.itech_framework.core.storage.CachingDataStorageService;
+import io.github.itech_framework.core.storage.DataStorageBindings;
 import io.github.itech_framework.core.storage.DataStorageService;
 import io.github.itech_framework.core.storage.DefaultDataStorageService;
+import io.github.itech_framework.core.storage.WriteBehindDataStorageService;
 import io.github.itech_framework.core.store.ComponentStore;
+import io.github.itech_framework.core.utils.AnnotationMetadataResolver;
+import io.github.itech_framework.core.utils.ClassFileMetadata;
+import io.github.itech_framework.core.utils.ComponentIndex;
 import io.github.itech_framework.core.utils.ObjectUtils;
 import io.github.itech_framework.core.utils.PackageClassesLoader;
 import io.github.itech_framework.core.utils.PropertiesLoader;
+import io.github.itech_framework.core.utils.ScanCache;
+import io.github.itech_framework.core.utils.ZipArchiveIndex;
 import io.github.itech_framework.core.exceptions.FrameworkException;
-import io.github.itech_framework.core.utils.AnnotationUtils;
 
-import java.lang.annotation.Annotation;
+import java.io.IOException;
 import java.lang.reflect.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class ComponentProcessor {
     public static final int DATA_ACCESS_LEVEL = 0;
@@ -44,64 +69,401 @@ public class ComponentProcessor {
             "javax.persistence.Entity",
             "jakarta.persistence.Entity"
     );
-    private static boolean apiClientsEnabled = false;
-    private static boolean javaFxEnabled = false;
+
+    /**
+     * Number of threads used to construct and wire components; {@code 1} keeps startup on the calling thread.
+     */
+    public static final String STARTUP_THREADS_PROPERTY = "itech.startup.threads";
 
     private static final Logger logger = LogManager.getLogger(ComponentProcessor.class);
 
-    public static void initialize(Class<?> clazz) throws Exception {
+    // cleanup priorities after the @PreDestroy methods of every tier
+    private static final int STORAGE_PERSIST_PRIORITY = DEFAULT_LEVEL + 1;
+    private static final int STORAGE_CLOSE_PRIORITY = DEFAULT_LEVEL + 2;
+
+    // scan results per main class, reused by every later context started with it
+    private static final ClassValue<AtomicReference<ScannedComponents>> scans = new ClassValue<>() {
+        @Override
+        protected AtomicReference<ScannedComponents> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    public static StartupReport initialize(Class<?> clazz) throws Exception {
+        int threads = Integer.getInteger(STARTUP_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+        if (threads <= 1) {
+            return initialize(clazz, Runnable::run);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new StartupThreadFactory("itech-startup-"));
+        try {
+            return initialize(clazz, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Initializes the application in the current {@link ApplicationContext}, constructing and wiring
+     * independent components on {@code executor}. The executor is not shut down, and neither is the
+     * context closed.
+     *
+     * @return the timeline of the startup, or {@code null} if the class has no {@link ComponentScan}
+     */
+    public static StartupReport initialize(Class<?> clazz, Executor executor) throws Exception {
         logger.debug("Initializing component...");
         logger.debug("Component scan found? -> {}", clazz.isAnnotationPresent(ComponentScan.class));
         if (clazz.isAnnotationPresent(ComponentScan.class)) {
             ComponentScan componentScan = clazz.getAnnotation(ComponentScan.class);
+            executor = ApplicationContext.current().bind(executor);
+            Startup startup = new Startup();
+            StartupRecorder recorder = startup.recorder;
 
             // Load properties first
-            PropertiesLoader.load(componentScan.properties(), clazz);
+            StartupRecorder.Phase phase = recorder.phase("properties");
+            try {
+                PropertiesLoader.load(componentScan.properties(), clazz);
+            } finally {
+                phase.end();
+            }
 
             // Load module initializers
-            ServiceLoader<ModuleInitializer> loader = ServiceLoader.load(ModuleInitializer.class);
-            ComponentRegistry registry = new ComponentRegistry();
-            for (ModuleInitializer initializer : loader) {
-                initializer.initialize(registry);
+            phase = recorder.phase("module initializers");
+            try {
+                ServiceLoader<ModuleInitializer> loader = ServiceLoader.load(ModuleInitializer.class);
+                ComponentRegistry registry = new ComponentRegistry();
+                for (ModuleInitializer initializer : loader) {
+                    initializer.initialize(registry);
+                }
+            } finally {
+                phase.end();
             }
 
-            // registering data storage service
-            if (ComponentStore.getComponent(DataStorageService.class.getName()) == null) {
-                logger.debug("Registering default StorageService");
-                DataStorageService defaultStorage = new DefaultDataStorageService();
-                ComponentStore.registerComponent(DataStorageService.class.getName(), defaultStorage, DEFAULT_LEVEL);
-            }
+            registerDataStorage();
 
             // check for api client component is enabled or not
             if (clazz.isAnnotationPresent(EnableApiClient.class)) {
-                apiClientsEnabled = true;
+                startup.apiClientsEnabled = true;
+                loadComponentInitializers(startup);
             }
 
             // check for javafx
             if(clazz.isAnnotationPresent(EnableJavaFx.class)){
-                javaFxEnabled = true;
-                validateForJavaFx();
+                startup.javaFxEnabled = true;
+                validateForJavaFx(startup);
             }
 
-            String basePackage = componentScan.basePackage();
-            List<Class<?>> classes = PackageClassesLoader.findAllClasses(basePackage, clazz);
-            for (Class<?> componentClass : classes) {
-                logger.debug("Scanning class: {}", componentClass.getName());
-                processComponents(componentClass);
+            ScannedComponents scanned = scans.get(clazz).get();
+            if (scanned == null) {
+                List<ComponentIndex.Entry> scannedEntries;
+                List<Class<?>> scannedClasses;
+                phase = recorder.phase("scan");
+                try {
+                    scannedEntries = findComponentEntries(startup, componentScan, clazz);
+                    scannedClasses = loadClasses(scannedEntries, clazz.getClassLoader());
+                    ZipArchiveIndex.clearCache();
+                } finally {
+                    phase.end();
+                }
+                ComponentBindings scannedBindings;
+                phase = recorder.phase("generated context");
+                try {
+                    scannedBindings = loadGeneratedContext(startup, clazz);
+                } finally {
+                    phase.end();
+                }
+                scanned = new ScannedComponents(scannedEntries, scannedClasses, scannedBindings);
+                scans.get(clazz).set(scanned);
+            } else {
+                logger.debug("Reusing the component scan of {}", clazz.getName());
+            }
+            List<ComponentIndex.Entry> entries = scanned.entries();
+            List<Class<?>> classes = scanned.classes();
+            ComponentBindings bindings = scanned.bindings();
+            phase = recorder.phase("component initializers");
+            try {
+                initializeComponents(startup, classes);
+            } finally {
+                phase.end();
+            }
+            ComponentGraph graph = new ComponentGraph();
+            phase = recorder.phase("process components");
+            try {
+                for (int i = 0; i < classes.size(); i++) {
+                    Class<?> componentClass = classes.get(i);
+                    ComponentIndex.Entry entry = entries.get(i);
+                    logger.debug("Scanning class: {}", componentClass.getName());
+                    ComponentProcessingEvent event = new ComponentProcessingEvent();
+                    event.begin();
+                    long start = System.nanoTime();
+                    ComponentBindings.Binding binding = bindings == null ? null : bindings.get(entry.className());
+                    if (binding != null && entry.isComponent()) {
+                        processGeneratedComponent(binding, entry, graph);
+                    } else {
+                        processComponents(componentClass, graph);
+                    }
+                    recorder.addComponentTime(componentClass.getName(), System.nanoTime() - start);
+                    if (event.shouldCommit()) {
+                        event.componentClass = componentClass.getName();
+                        event.commit();
+                    }
+                }
+            } finally {
+                phase.end();
+            }
+            phase = recorder.phase("resolve dependencies");
+            try {
+                addRegisteredInstances(graph);
+                resolveDependencies(graph);
+                registerLazyComponents(graph);
+            } finally {
+                phase.end();
+            }
+            phase = recorder.phase("construct components");
+            try {
+                constructComponents(graph, executor, recorder);
+            } finally {
+                phase.end();
             }
 
-            processTierLevel(DATA_ACCESS_LEVEL);
-            processTierLevel(BUSINESS_LOGIC_LEVEL);
-            processTierLevel(PRESENTATION_LEVEL);
-            processTierLevel(DEFAULT_LEVEL);
+            // runs asynchronous @OnInit methods, apart from the startup executor so a blocking method never
+            // holds up wiring, whatever the number of startup threads; shut down once they are awaited
+            ExecutorService asyncInitExecutor = Executors.newCachedThreadPool(new StartupThreadFactory("itech-init-"));
+            try {
+                ComponentWiring wiring = new ComponentWiring(graph, executor, asyncInitExecutor, recorder);
+                try {
+                    processTierLevel(wiring, DATA_ACCESS_LEVEL);
+                    processTierLevel(wiring, BUSINESS_LOGIC_LEVEL);
+                    processTierLevel(wiring, PRESENTATION_LEVEL);
+                    processTierLevel(wiring, DEFAULT_LEVEL);
+                } catch (RuntimeException e) {
+                    throw wiring.tracker.failure(e);
+                }
+                // asynchronous @OnInit methods may still be running
+                phase = recorder.phase("await async init");
+                try {
+                    wiring.tracker.awaitAll();
+                } finally {
+                    phase.end();
+                }
+            } finally {
+                asyncInitExecutor.shutdown();
+            }
+            phase = recorder.phase("freeze component store");
+            try {
+                ComponentStore.freeze();
+            } finally {
+                phase.end();
+            }
 
-            // clean up resources registry
-            Runtime.getRuntime().addShutdownHook(new Thread(CleanupRegistry::cleanup));
+            StartupReport startupReport = recorder.finish();
+            if (logger.isDebugEnabled()) {
+                logger.debug("{}", startupReport);
+            }
+
+            Path classList = AppCds.trainingClassList();
+            if (classList != null) {
+                finishTrainingRun(classList);
+            }
+            return startupReport;
+        }
+        return null;
+    }
+
+    /**
+     * Registers the default storage service unless a module registered one, caches it when
+     * {@value CachingDataStorageService#CAPACITY_PROPERTY} is set, and registers the cleanup tasks
+     * saving the {@code @DataStorage} fields and then closing the storage service if it is
+     * {@link AutoCloseable}.
+     */
+    private static void registerDataStorage() {
+        DataStorageService storage = (DataStorageService) ComponentStore.getComponent(DataStorageService.class.getName());
+        if (storage == null) {
+            logger.debug("Registering default StorageService");
+            storage = new DefaultDataStorageService();
+            if (!"false".equals(System.getProperty(WriteBehindDataStorageService.ENABLED_PROPERTY))) {
+                storage = new WriteBehindDataStorageService(storage);
+            }
+            ComponentStore.registerComponent(DataStorageService.class.getName(), storage, DEFAULT_LEVEL);
         }
+        String capacity = storageProperty(CachingDataStorageService.CAPACITY_PROPERTY, "0");
+        if (Integer.parseInt(capacity) > 0) {
+            logger.debug("Caching StorageService with capacity {}", capacity);
+            storage = new CachingDataStorageService(storage, Integer.parseInt(capacity),
+                    Long.parseLong(storageProperty(CachingDataStorageService.EXPIRE_AFTER_WRITE_PROPERTY, "0")));
+            ComponentStore.registerComponent(DataStorageService.class.getName(), storage, DEFAULT_LEVEL);
+        }
+        if (storage instanceof AutoCloseable closeable) {
+            CleanupRegistry.register(() -> {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }, STORAGE_CLOSE_PRIORITY, "close data storage");
+        }
+        DataStorageBindings bindings = ApplicationContext.current().getDataStorageBindings();
+        CleanupRegistry.register(() -> {
+            DataStorageService current = (DataStorageService) ComponentStore.getComponent(DataStorageService.class.getName());
+            if (current != null) bindings.persist(current);
+        }, STORAGE_PERSIST_PRIORITY, "persist @DataStorage fields");
+    }
+
+    // system property, otherwise application property
+    private static String storageProperty(String key, String defaultValue) {
+        return System.getProperty(key, PropertiesLoader.getProperty(key, defaultValue)).trim();
+    }
+
+    /**
+     * Ends an AppCDS training run: writes the loaded classes, runs the cleanup tasks and exits.
+     */
+    private static void finishTrainingRun(Path classList) {
+        int status = 0;
+        try {
+            AppCds.writeClassList(classList);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write class list {}", classList, e);
+            status = 1;
+        }
+        CleanupRegistry.cleanup();
+        System.exit(status);
+    }
+
+    /**
+     * @return the timeline of the startup of the current context, or {@code null} before it has completed
+     */
+    public static StartupReport getStartupReport() {
+        return ApplicationContext.current().getStartupReport();
+    }
+
+    private static List<ComponentIndex.Entry> findComponentEntries(Startup startup, ComponentScan componentScan,
+                                                                   Class<?> clazz) throws Exception {
+        String basePackage = componentScan.basePackage();
+        ClassLoader classLoader = clazz.getClassLoader();
+        AnnotationMetadataResolver resolver = new AnnotationMetadataResolver(classLoader);
+        ScanCache cache = ScanCache.open(basePackage + "|apiClients=" + startup.apiClientsEnabled
+                + "|" + String.join(",", new TreeSet<>(startup.initializerAnnotations)), classLoader, resolver);
+        // roots with a component index are read from it, unless api client initializers have to
+        // inspect arbitrary classes, which the index does not record
+        return PackageClassesLoader.scanEntries(basePackage, classLoader,
+                metadata -> classifyCandidate(startup, metadata, resolver), componentScan.parallelScan(), cache,
+                !startup.apiClientsEnabled);
     }
 
-    private static void validateForJavaFx(){
-        if(javaFxEnabled){
+    private static List<Class<?>> loadClasses(List<ComponentIndex.Entry> entries, ClassLoader classLoader) throws ClassNotFoundException {
+        List<Class<?>> classes = new ArrayList<>(entries.size());
+        for (ComponentIndex.Entry entry : entries) {
+            classes.add(Class.forName(entry.className(), false, classLoader));
+        }
+        logger.info("Loaded {} component classes", classes.size());
+        return classes;
+    }
+
+    /**
+     * Loads the {@link GeneratedComponentContext} compiled for the main class, if any.
+     *
+     * @return the bindings it registered, or {@code null} to process every component reflectively
+     */
+    private static ComponentBindings loadGeneratedContext(Startup startup, Class<?> clazz) {
+        // api client initializers may change classes the context was generated from
+        if (startup.apiClientsEnabled || "false".equals(System.getProperty(GeneratedComponentContext.ENABLED_PROPERTY))) {
+            return null;
+        }
+        String contextName = GeneratedComponentContext.contextClassName(clazz.getName());
+        Class<?> contextClass;
+        try {
+            contextClass = Class.forName(contextName, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            GeneratedComponentContext context = (GeneratedComponentContext) contextClass.getDeclaredConstructor().newInstance();
+            ComponentBindings bindings = new ComponentBindings();
+            context.register(bindings);
+            logger.debug("Using generated component context {}", contextName);
+            return bindings;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            // e.g. a context compiled against classes that changed since
+            logger.warn("Ignoring generated component context {}: {}", contextName, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Decides from class-file bytes whether a scanned class is handed to {@link #processComponents}:
+     * components (directly or through a stereotype), JPA entities and, with api clients enabled,
+     * the annotated classes the component initializers asked for.
+     */
+    private static ComponentIndex.Entry classifyCandidate(Startup startup, ClassFileMetadata metadata,
+                                                          AnnotationMetadataResolver resolver) {
+        if (metadata.annotations().isEmpty() || metadata.isAnnotation()) return null;
+
+        String component = Component.class.getName();
+        Map<String, Object> componentValues = resolver.findAnnotation(metadata, component);
+        if (componentValues != null) {
+            Object name = componentValues.get("name");
+            String key = name == null || name.toString().isEmpty() ? metadata.className() : name.toString();
+            List<String> interfaces = resolver.hasAnnotation(metadata, IgnoreInterfaces.class.getName())
+                    ? List.of() : metadata.interfaces();
+            return new ComponentIndex.Entry(metadata.className(), key, determineComponentLevel(metadata, resolver), interfaces);
+        }
+
+        boolean entity = metadata.annotations().keySet().stream().anyMatch(JPA_ENTITY_ANNOTATIONS::contains);
+        if (entity || (startup.apiClientsEnabled && isInitializerCandidate(startup, metadata, resolver))) {
+            return new ComponentIndex.Entry(metadata.className(), "", ComponentIndex.NO_LEVEL, List.of());
+        }
+        return null;
+    }
+
+    private static boolean isInitializerCandidate(Startup startup, ClassFileMetadata metadata,
+                                                  AnnotationMetadataResolver resolver) {
+        return startup.initializerAnnotations.isEmpty()
+                || startup.initializerAnnotations.stream().anyMatch(annotation -> resolver.hasAnnotation(metadata, annotation));
+    }
+
+    private static int determineComponentLevel(ClassFileMetadata metadata, AnnotationMetadataResolver resolver) {
+        if (resolver.hasAnnotation(metadata, DataAccess.class.getName())) return DATA_ACCESS_LEVEL;
+        if (resolver.hasAnnotation(metadata, BusinessLogic.class.getName())) return BUSINESS_LOGIC_LEVEL;
+        if (resolver.hasAnnotation(metadata, Presentation.class.getName())) return PRESENTATION_LEVEL;
+        return DEFAULT_LEVEL;
+    }
+
+    private static void loadComponentInitializers(Startup startup) {
+        List<ComponentInitializer> componentInitializers = ServiceLoader.load(ComponentInitializer.class).stream()
+                .map(ServiceLoader.Provider::get)
+                .toList();
+
+        Set<String> annotations = new HashSet<>();
+        for (ComponentInitializer initializer : componentInitializers) {
+            Set<String> supported = initializer.supportedAnnotationTypes();
+            if (supported.isEmpty()) {
+                annotations.clear();
+                break;
+            }
+            annotations.addAll(supported);
+        }
+        startup.componentInitializers = componentInitializers;
+        startup.initializerAnnotations = Set.copyOf(annotations);
+        logger.debug("Loaded {} component initializers", componentInitializers.size());
+    }
+
+    /**
+     * Hands every component initializer the scanned classes carrying one of its annotations, in one call.
+     */
+    private static void initializeComponents(Startup startup, List<Class<?>> classes) {
+        for (ComponentInitializer initializer : startup.componentInitializers) {
+            Set<String> supported = initializer.supportedAnnotationTypes();
+            List<Class<?>> routed = supported.isEmpty() ? classes : classes.stream()
+                    .filter(type -> ComponentDescriptor.of(type).getAnnotationTypes().stream()
+                            .anyMatch(annotation -> supported.contains(annotation.getName())))
+                    .toList();
+            if (!routed.isEmpty()) {
+                initializer.initializeComponents(routed);
+            }
+        }
+    }
+
+    private static void validateForJavaFx(Startup startup){
+        if(startup.javaFxEnabled){
             try {
                 Class.forName("io.github.itech_framework.java_fx.ITechJavaFxApplication");
             } catch (ClassNotFoundException e) {
@@ -114,18 +476,119 @@ public class ComponentProcessor {
         }
     }
 
-    private static void processTierLevel(int level) {
-        ComponentStore.getComponentsByLevel(level).forEach(instance -> {
-            if(!AnnotationUtils.hasAnnotation(instance.getClass(), DisableLoaded.class)){
-                injectFields(instance.getClass(), instance);
-                injectMethods(instance.getClass(), instance, level);
+    /**
+     * Wires the components of one tier. Components they depend on are wired first, whatever their
+     * tier; independent groups are wired concurrently.
+     */
+    private static void processTierLevel(ComponentWiring wiring, int level) {
+        StartupRecorder.Phase phase = wiring.recorder.tier(level);
+        try {
+            scheduleTierLevel(wiring, level);
+        } finally {
+            phase.end();
+            ApplicationContext.current().getDataStorageBindings().clearPreloaded();
+        }
+    }
+
+    private static void scheduleTierLevel(ComponentWiring wiring, int level) {
+        List<List<ComponentGraph.Node>> groups = wiring.groups;
+        boolean[] needed = new boolean[groups.size()];
+        // groups are ordered dependencies first, so walking backwards reaches every dependency
+        for (int i = groups.size() - 1; i >= 0; i--) {
+            if (wiring.scheduled[i] != null) continue;
+            needed[i] |= groups.get(i).stream().anyMatch(node -> node.getLevel() == level);
+            if (!needed[i]) continue;
+            for (ComponentGraph.Node node : groups.get(i)) {
+                for (ComponentGraph.Node dependency : node.getDependencies()) {
+                    needed[wiring.groupOf.get(dependency)] = true;
+                }
             }
-        });
+        }
+
+        preloadDataStorage(wiring, needed);
+
+        List<CompletableFuture<Void>> tier = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            if (!needed[i] || wiring.scheduled[i] != null) continue;
+            int index = i;
+            List<ComponentGraph.Node> group = groups.get(i);
+            Stream<CompletableFuture<?>> wired = group.stream()
+                    .flatMap(node -> node.getDependencies().stream())
+                    .map(wiring.groupOf::get)
+                    .filter(dependency -> dependency != index)
+                    .distinct()
+                    .map(dependency -> wiring.scheduled[dependency]);
+            Stream<CompletableFuture<?>> initialized = group.stream()
+                    .flatMap(node -> node.getInitDependencies().stream())
+                    .map(ComponentGraph.Node::getInitialized);
+            CompletableFuture<?>[] dependencies = Stream.concat(wired, initialized).toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+                    .thenRunAsync(() -> wireGroup(wiring, group), wiring.executor);
+            // components waiting for this group through dependsOn must not wait forever
+            future.whenComplete((ignored, failure) -> {
+                if (failure != null) group.forEach(node -> node.getInitialized().completeExceptionally(failure));
+            });
+            wiring.scheduled[i] = future;
+            tier.add(future);
+        }
+        await(CompletableFuture.allOf(tier.toArray(CompletableFuture[]::new)));
     }
 
+    /**
+     * Loads the {@code @DataStorage} keys of the components about to be wired with one bulk load.
+     */
+    private static void preloadDataStorage(ComponentWiring wiring, boolean[] needed) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < needed.length; i++) {
+            if (!needed[i] || wiring.scheduled[i] != null) continue;
+            for (ComponentGraph.Node node : wiring.groups.get(i)) {
+                if (!isWired(node)) continue;
+                for (InjectionPlan.FieldInjection field : InjectionPlan.of(node.getType()).getFields()) {
+                    if (field.dataStorage() != null) keys.add(field.dataStorage().key());
+                }
+            }
+        }
+        DataStorageService storage = (DataStorageService) ComponentStore.getComponent(DataStorageService.class.getName());
+        if (keys.isEmpty() || storage == null) return;
+        ApplicationContext.current().getDataStorageBindings().preload(storage, keys);
+    }
 
-    private static void processComponents(Class<?> clazz) {
-        if (isJpaEntity(clazz)) {
+    private static void wireGroup(ComponentWiring wiring, List<ComponentGraph.Node> group) {
+        List<ComponentGraph.Node> wired = new ArrayList<>();
+        for (ComponentGraph.Node node : group) {
+            if (isWired(node)) {
+                wired.add(node);
+            } else {
+                node.getInitialized().complete(null);
+            }
+        }
+        for (ComponentGraph.Node node : wired) {
+            long start = System.nanoTime();
+            injectFields(node.getType(), node.getInstance());
+            wiring.recorder.addComponentTime(node.getType().getName(), System.nanoTime() - start);
+        }
+        for (ComponentGraph.Node node : wired) {
+            CompletableFuture<Void> init = processInitMethod(node.getType(), node.getInstance(), wiring.asyncExecutor, wiring.tracker);
+            processPreDestroyMethod(node.getType(), node.getInstance(), node.getLevel());
+            wiring.tracker.track(init);
+            init.whenComplete((ignored, failure) -> {
+                if (failure == null) {
+                    node.getInitialized().complete(null);
+                } else {
+                    node.getInitialized().completeExceptionally(failure);
+                }
+            });
+        }
+    }
+
+    private static boolean isWired(ComponentGraph.Node node) {
+        int level = node.getLevel();
+        return level >= DATA_ACCESS_LEVEL && level <= DEFAULT_LEVEL && !node.isLazy() && !node.isDisableLoaded();
+    }
+
+    private static void processComponents(Class<?> clazz, ComponentGraph graph) {
+        ComponentDescriptor descriptor = ComponentDescriptor.of(clazz);
+        if (descriptor.isJpaEntity()) {
             if (!isJpaModuleAvailable()) {
                 StringBuilder error = new StringBuilder("JPA required but not available.\n");
                 try {
@@ -139,46 +602,234 @@ public class ComponentProcessor {
                 throw new FrameworkException(error.toString());
             }
         }
-        if (apiClientsEnabled){
-            // process for api client
-            // load component initializer
-            ServiceLoader<ComponentInitializer> componentInitializerServiceLoader = ServiceLoader.load(ComponentInitializer.class);
-
-            for(ComponentInitializer initializer: componentInitializerServiceLoader){
-                initializer.initializeComponent(clazz);
+        if (descriptor.isComponent()) {
+            List<String> aliases = new ArrayList<>();
+            if(!descriptor.isIgnoreInterfaces()){
+                for (Class<?> iface : clazz.getInterfaces()) {
+                    aliases.add(iface.getName());
+                }
             }
+            ComponentGraph.Node node = addComponentNode(graph, clazz, descriptor.getKey(), descriptor.getLevel(), aliases);
+            node.setLazy(descriptor.hasAnnotation(Lazy.class));
+            node.setDisableLoaded(descriptor.isDisableLoaded());
         }
-        if (isComponentClass(clazz)) {
-            try {
-                Component componentAnnotation = getComponentAnnotation(clazz);
-                String key = getComponentKey(componentAnnotation, clazz);
-                int level = determineComponentLevel(clazz);
 
-                if (ComponentStore.components.containsKey(key)) {
-                    throw new IllegalArgumentException("Duplicate component key: " + key);
+    }
+
+    /**
+     * Adds a component of the generated context, taking key, level and interfaces from its index
+     * entry instead of its annotations.
+     */
+    private static void processGeneratedComponent(ComponentBindings.Binding binding, ComponentIndex.Entry entry,
+                                                  ComponentGraph graph) {
+        ComponentGraph.Node node = addComponentNode(graph, binding.getType(), entry.key(), entry.level(), entry.interfaces());
+        node.setLazy(binding.isLazy());
+        node.setDisableLoaded(binding.isDisableLoaded());
+        InjectionPlan.register(binding.getType(), binding.toPlan());
+    }
+
+    private static ComponentGraph.Node addComponentNode(ComponentGraph graph, Class<?> clazz, String key, int level,
+                                                        List<String> aliases) {
+        try {
+            if (graph.hasProvider(key) || ComponentStore.components.containsKey(key)) {
+                throw new IllegalArgumentException("Duplicate component key: " + key);
+            }
+            for (String interfaceKey : aliases) {
+                if (graph.hasProvider(interfaceKey) || ComponentStore.components.containsKey(interfaceKey)) {
+                    throw new IllegalArgumentException("Duplicate component key for interface: " + interfaceKey);
                 }
+            }
+            return graph.addComponent(clazz, key, level, aliases);
+        } catch (Exception e) {
+            logger.error("Component processing failed", e);
+            throw new RuntimeException(e);
+        }
+    }
 
-                Constructor<?> constructor = findSuitableConstructor(clazz);
-                Object instance = createInstance(constructor);
+    /**
+     * Adds the instances modules registered before scanning, once per instance however many keys it has.
+     */
+    private static void addRegisteredInstances(ComponentGraph graph) {
+        Map<Object, List<String>> instances = new IdentityHashMap<>();
+        List<Object> order = new ArrayList<>();
+        ComponentStore.components.keySet().stream().sorted().forEach(key -> {
+            Object instance = ComponentStore.components.get(key);
+            if (graph.hasProvider(key)) {
+                throw new IllegalArgumentException("Duplicate component key: " + key);
+            }
+            instances.computeIfAbsent(instance, i -> {
+                order.add(i);
+                return new ArrayList<>();
+            }).add(key);
+        });
+        for (Object instance : order) {
+            List<String> keys = instances.get(instance);
+            int level = keys.stream()
+                    .map(ComponentStore::getComponentLevel)
+                    .filter(Objects::nonNull)
+                    .min(Integer::compare)
+                    .orElse(DEFAULT_LEVEL);
+            graph.addInstance(instance, level, keys)
+                    .setDisableLoaded(ComponentDescriptor.of(instance.getClass()).isDisableLoaded());
+        }
+    }
+
+    /**
+     * Chooses constructors and records the edges of the graph: constructor parameters,
+     * {@code @Rx} fields and {@code @OnInit} parameters.
+     */
+    private static void resolveDependencies(ComponentGraph graph) {
+        for (ComponentGraph.Node node : graph.getNodes()) {
+            InjectionPlan plan = InjectionPlan.of(node.getType());
+            if (node.getInstance() == null) {
+                try {
+                    InjectionPlan.Factory factory = plan.getFactory() != null
+                            ? plan.getFactory()
+                            : InjectionPlan.Factory.of(findSuitableConstructor(node, graph));
+                    node.setFactory(factory);
+                    for (InjectionPlan.ParameterBinding parameter : factory.parameters()) {
+                        ComponentGraph.Node provider = addReference(graph, node, parameter.key());
+                        if (provider != null) graph.addConstructorDependency(node, provider);
+                    }
+                } catch (NoSuchMethodException e) {
+                    logger.error("Component processing failed", e);
+                    throw new RuntimeException(e);
+                }
+            }
 
-                ComponentStore.registerComponent(key, instance, level);
+            for (InjectionPlan.FieldInjection field : plan.getFields()) {
+                if (field.rxComponentType() != null) {
+                    addTypeReference(graph, node, field.rxComponentType());
+                } else if (field.rxKey() != null) {
+                    addReference(graph, node, field.rxKey());
+                }
+            }
 
-                if(!AnnotationUtils.hasAnnotation(clazz, IgnoreInterfaces.class)){
-                    for (Class<?> iface : clazz.getInterfaces()) {
-                        String interfaceKey = iface.getName();
-                        if (ComponentStore.components.containsKey(interfaceKey)) {
-                            throw new IllegalArgumentException("Duplicate component key for interface: " + interfaceKey);
-                        }
-                        ComponentStore.registerComponent(interfaceKey, instance, level);
+            for (InjectionPlan.LifecycleMethod initMethod : plan.getInitMethods()) {
+                for (InjectionPlan.ParameterBinding parameter : initMethod.parameters()) {
+                    addReference(graph, node, parameter.key());
+                }
+                for (Class<?> dependency : initMethod.dependsOn()) {
+                    ComponentGraph.Node provider = graph.getProvider(dependency.getName());
+                    if (provider == null) {
+                        throw new IllegalStateException("Unknown component in @OnInit dependsOn of " + node.getKey() + ": " + dependency.getName());
                     }
+                    graph.addInitDependency(node, provider);
+                    // a lazy component would never be initialized at startup
+                    graph.addKeyReference(node, provider);
                 }
+            }
+        }
+    }
+
+    private static ComponentGraph.Node addReference(ComponentGraph graph, ComponentGraph.Node node, String key) {
+        ComponentGraph.Node provider = graph.getProvider(key);
+        if (provider != null) {
+            graph.addDependency(node, provider);
+            if (key.equals(provider.getKey())) graph.addKeyReference(node, provider);
+        }
+        return provider;
+    }
+
+    /**
+     * Depends on every component assignable to the type. A lazy component is created eagerly unless
+     * its proxy implements the type.
+     */
+    private static void addTypeReference(ComponentGraph graph, ComponentGraph.Node node, Class<?> type) {
+        for (ComponentGraph.Node provider : graph.getProvidersOfType(type)) {
+            graph.addDependency(node, provider);
+            boolean proxied = provider.getAliases().stream()
+                    .anyMatch(alias -> Arrays.stream(provider.getType().getInterfaces())
+                            .anyMatch(iface -> iface.getName().equals(alias) && type.isAssignableFrom(iface)));
+            if (!proxied) graph.addKeyReference(node, provider);
+        }
+    }
 
-            } catch (Exception e) {
-                logger.error("Component processing failed", e);
-                throw new RuntimeException(e);
+    /**
+     * Registers a proxy for the interface keys of every {@code @Lazy} component and a factory for its
+     * own key. A lazy component that an eager one refers to by its own key cannot be proxied and is
+     * created eagerly.
+     */
+    private static void registerLazyComponents(ComponentGraph graph) {
+        Deque<ComponentGraph.Node> eager = new ArrayDeque<>();
+        for (ComponentGraph.Node node : graph.getNodes()) {
+            if (!node.isLazy()) eager.add(node);
+        }
+        while (!eager.isEmpty()) {
+            for (ComponentGraph.Node dependency : eager.poll().getKeyReferences()) {
+                if (dependency.isLazy()) {
+                    logger.debug("Lazy component {} is injected by its class, creating it eagerly", dependency.getKey());
+                    dependency.setLazy(false);
+                    eager.add(dependency);
+                }
+            }
+        }
+
+        for (ComponentGraph.Node node : graph.getNodes()) {
+            if (!node.isLazy()) continue;
+            LazyComponent lazyComponent = new LazyComponent(node);
+            ComponentStore.registerLazyComponent(node.getKey(), lazyComponent::get, node.getLevel());
+            if (!node.getAliases().isEmpty()) {
+                List<Class<?>> interfaces = Arrays.stream(node.getType().getInterfaces())
+                        .filter(iface -> node.getAliases().contains(iface.getName()))
+                        .toList();
+                Object proxy = lazyComponent.proxy(interfaces);
+                node.setInstance(proxy);
+                for (String alias : node.getAliases()) {
+                    ComponentStore.registerComponent(alias, proxy, node.getLevel());
+                }
             }
         }
+    }
 
+    /**
+     * Creates every component once its constructor dependencies exist; independent components
+     * are created concurrently.
+     *
+     * @throws FrameworkException if constructor dependencies are circular
+     */
+    private static void constructComponents(ComponentGraph graph, Executor executor, StartupRecorder recorder) {
+        Map<ComponentGraph.Node, CompletableFuture<Void>> constructed = new IdentityHashMap<>();
+        for (ComponentGraph.Node node : graph.constructionOrder()) {
+            if (node.getInstance() != null || node.isLazy()) {
+                constructed.put(node, CompletableFuture.completedFuture(null));
+                continue;
+            }
+            CompletableFuture<?>[] dependencies = node.getConstructorDependencies().stream()
+                    .map(constructed::get)
+                    .toArray(CompletableFuture[]::new);
+            constructed.put(node, CompletableFuture.allOf(dependencies)
+                    .thenRunAsync(() -> createComponent(node, recorder), executor));
+        }
+        await(CompletableFuture.allOf(constructed.values().toArray(CompletableFuture[]::new)));
+    }
+
+    private static void createComponent(ComponentGraph.Node node, StartupRecorder recorder) {
+        try {
+            long start = System.nanoTime();
+            Object instance = createInstance(node.getFactory());
+            node.setInstance(instance);
+            recorder.addComponentTime(node.getType().getName(), System.nanoTime() - start);
+
+            ComponentStore.registerComponent(node.getKey(), instance, node.getLevel());
+            for (String alias : node.getAliases()) {
+                ComponentStore.registerComponent(alias, instance, node.getLevel());
+            }
+        } catch (Exception e) {
+            logger.error("Component processing failed", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void await(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new RuntimeException(cause);
+        }
     }
 
     private static boolean isJpaModuleAvailable() {
@@ -199,56 +850,8 @@ public class ComponentProcessor {
         }
     }
 
-    private static boolean isJpaEntity(Class<?> clazz) {
-        return Arrays.stream(clazz.getAnnotations())
-                .anyMatch(annotation ->
-                        JPA_ENTITY_ANNOTATIONS.contains(annotation.annotationType().getName())
-                );
-    }
-
-    private static Component getComponentAnnotation(Class<?> clazz) {
-        if (clazz.isAnnotationPresent(Component.class)) {
-            return clazz.getAnnotation(Component.class);
-        }
-
-        for (Annotation annotation : clazz.getAnnotations()) {
-            Component component = annotation.annotationType().getAnnotation(Component.class);
-            if (component != null) {
-                return component;
-            }
-        }
-        throw new IllegalStateException("No component annotation found on " + clazz.getName());
-    }
-
-    private static boolean isComponentClass(Class<?> clazz) {
-        boolean isComponent = clazz.isAnnotationPresent(Component.class) ||
-                Arrays.stream(clazz.getAnnotations())
-                        .anyMatch(annotation -> {
-                            boolean hasComponent = annotation.annotationType()
-                                    .isAnnotationPresent(Component.class);
-                            logger.debug("Checking annotation {} on {}: {}",
-                                    annotation.annotationType().getSimpleName(),
-                                    clazz.getSimpleName(),
-                                    hasComponent);
-                            return hasComponent;
-                        });
-
-        logger.debug("Class {} is component: {}", clazz.getSimpleName(), isComponent);
-        return isComponent;
-    }
-
-    private static int determineComponentLevel(Class<?> clazz) {
-        if (clazz.isAnnotationPresent(DataAccess.class)) return DATA_ACCESS_LEVEL;
-        if (clazz.isAnnotationPresent(BusinessLogic.class)) return BUSINESS_LOGIC_LEVEL;
-        if (clazz.isAnnotationPresent(Presentation.class)) return PRESENTATION_LEVEL;
-        return DEFAULT_LEVEL;
-    }
-
-    private static String getComponentKey(Component component, Class<?> clazz) {
-        return component.name().isEmpty() ? clazz.getName() : component.name();
-    }
-
-    private static Constructor<?> findSuitableConstructor(Class<?> clazz) throws NoSuchMethodException {
+    private static Constructor<?> findSuitableConstructor(ComponentGraph.Node node, ComponentGraph graph) throws NoSuchMethodException {
+        Class<?> clazz = node.getType();
         List<Constructor<?>> constructors = Arrays.stream(clazz.getDeclaredConstructors())
                 .sorted((c1, c2) -> Integer.compare(c2.getParameterCount(), c1.getParameterCount()))
                 .toList();
@@ -268,7 +871,7 @@ public class ComponentProcessor {
         } catch (NoSuchMethodException ignored) {}
 
         for (Constructor<?> constructor : constructors) {
-            if (canResolveConstructorParameters(constructor)) {
+            if (canResolveConstructorParameters(constructor, node, graph)) {
                 constructor.setAccessible(true);
                 return constructor;
             }
@@ -277,62 +880,56 @@ public class ComponentProcessor {
         throw new NoSuchMethodException("No resolvable constructor found for " + clazz.getName());
     }
 
-    private static boolean canResolveConstructorParameters(Constructor<?> constructor) {
+    private static boolean canResolveConstructorParameters(Constructor<?> constructor, ComponentGraph.Node node, ComponentGraph graph) {
         return Arrays.stream(constructor.getParameters())
-                .allMatch(param ->
-                        ComponentStore.components.containsKey(param.getType().getName()) ||
-                                param.isAnnotationPresent(DefaultParameter.class)
-                );
+                .allMatch(param -> {
+                    ComponentGraph.Node provider = graph.getProvider(param.getType().getName());
+                    return (provider != null && provider != node) ||
+                            param.isAnnotationPresent(DefaultParameter.class);
+                });
     }
 
-    private static Object createInstance(Constructor<?> constructor) throws Exception {
-        Object[] args = Arrays.stream(constructor.getParameters())
+    static Object createInstance(InjectionPlan.Factory factory) throws Exception {
+        Object[] args = factory.parameters().stream()
                 .map(ComponentProcessor::resolveParameter)
                 .toArray();
-        return constructor.newInstance(args);
+        return factory.newInstance(args);
     }
 
-    private static Object resolveParameter(Parameter parameter) {
-        Object component = ComponentStore.components.get(parameter.getType().getName());
+    private static Object resolveParameter(InjectionPlan.ParameterBinding parameter) {
+        Object component = ComponentStore.getComponent(parameter.key());
         if (component != null) return component;
 
-        DefaultParameter defaultParam = parameter.getAnnotation(DefaultParameter.class);
-        if (defaultParam != null) {
-            return ObjectUtils.convertValue(defaultParam.value(), parameter.getType());
+        if (parameter.defaultValue() != null) {
+            return ObjectUtils.convertValue(parameter.defaultValue(), parameter.type());
         }
 
-        return getDefaultValueForType(parameter.getType());
+        return getDefaultValueForType(parameter.type());
     }
 
     public static void injectFields(Class<?> clazz, Object instance) {
-        Class<?> currentClass = clazz;
-        while (currentClass != null && currentClass != Object.class) {
-            processClassFields(currentClass, instance);
-            currentClass = currentClass.getSuperclass();
-        }
-    }
-
-    private static void processClassFields(Class<?> clazz, Object instance) {
-        for (Field field : clazz.getDeclaredFields()) {
-            try {
-                if (field.isAnnotationPresent(Property.class)) {
-                    processPropertyField(instance, field);
-                }
-                if (field.isAnnotationPresent(Rx.class)) {
-                    processRxField(instance, field);
-                }
-                if (field.isAnnotationPresent(DataStorage.class)) {
-                    processDataStorageField(instance, field);
-                }
-            } catch (IllegalAccessException e) {
-                logger.error("Field injection failed for {} in {}", field.getName(), clazz.getName(), e);
-                throw new RuntimeException("Field injection failed", e);
+        for (InjectionPlan.FieldInjection field : InjectionPlan.of(clazz).getFields()) {
+            FieldInjectionEvent event = new FieldInjectionEvent();
+            event.begin();
+            if (field.property() != null) {
+                processPropertyField(instance, field);
+            }
+            if (field.rxKey() != null) {
+                processRxField(instance, field);
+            }
+            if (field.dataStorage() != null) {
+                processDataStorageField(instance, field);
+            }
+            if (event.shouldCommit()) {
+                event.componentClass = clazz.getName();
+                event.field = field.name();
+                event.commit();
             }
         }
     }
 
-    private static void processPropertyField(Object instance, Field field) throws IllegalAccessException {
-        Property property = field.getAnnotation(Property.class);
+    private static void processPropertyField(Object instance, InjectionPlan.FieldInjection field) {
+        InjectionPlan.PropertyBinding property = field.property();
         String key = property.key();
         String defaultValue = property.defaultValue();
 
@@ -345,134 +942,167 @@ public class ComponentProcessor {
             value = defaultValue;
         }
 
-        Object convertedValue = ObjectUtils.convertValue(value, field.getType());
-        field.setAccessible(true);
+        Object convertedValue = ObjectUtils.convertValue(value, field.type());
         field.set(instance, convertedValue);
     }
 
-    private static void processRxField(Object instance, Field field) throws IllegalAccessException {
-        Rx rx = field.getAnnotation(Rx.class);
-        String key = rx.name().isEmpty() ? field.getType().getName() : rx.name();
+    private static void processRxField(Object instance, InjectionPlan.FieldInjection field) {
+        if (field.rxComponentType() != null) {
+            field.set(instance, field.type() == Map.class
+                    ? ComponentStore.getComponentMapOfType(field.rxComponentType())
+                    : ComponentStore.getComponentsOfType(field.rxComponentType()));
+            return;
+        }
+        String key = field.rxKey();
 
-        Object component = ComponentStore.components.get(key);
+        Object component = ComponentStore.getComponent(key);
         if (component == null) {
             throw new IllegalStateException("Missing component for key: " + key);
         }
 
-        if (!field.getType().isAssignableFrom(component.getClass())) {
-            throw new ClassCastException("Component type mismatch for field " + field.getName());
+        if (!field.type().isAssignableFrom(component.getClass())) {
+            throw new ClassCastException("Component type mismatch for field " + field.name());
         }
 
-        field.setAccessible(true);
         field.set(instance, component);
     }
 
-    private static void processDataStorageField(Object instance, Field field) throws IllegalAccessException {
-        DataStorage dataStorage = field.getAnnotation(DataStorage.class);
-        String key = dataStorage.key().isEmpty() ? field.getName() : dataStorage.key();
+    private static void processDataStorageField(Object instance, InjectionPlan.FieldInjection field) {
+        InjectionPlan.StorageBinding dataStorage = field.dataStorage();
+        String key = dataStorage.key();
 
         DataStorageService storageService = (DataStorageService) ComponentStore.getComponent(DataStorageService.class.getName());
         if (storageService == null) {
             throw new IllegalStateException("No StorageService available for @DataStorage");
         }
 
-        String storedValue = storageService.load(key);
+        DataStorageBindings bindings = ApplicationContext.current().getDataStorageBindings();
+        Optional<String> preloaded = bindings.getPreloaded(key);
+        String storedValue = preloaded != null ? preloaded.orElse(null) : storageService.load(key);
         Object valueToSet;
 
         if (storedValue != null) {
-            valueToSet = ObjectUtils.convertValue(storedValue, field.getType());
+            valueToSet = ObjectUtils.convertValue(storedValue, field.type());
         } else {
             String defaultValue = dataStorage.defaultValue();
             if (!defaultValue.isEmpty()) {
-                valueToSet = ObjectUtils.convertValue(defaultValue, field.getType());
+                valueToSet = ObjectUtils.convertValue(defaultValue, field.type());
             } else {
-                field.setAccessible(true);
                 valueToSet = field.get(instance);
             }
         }
 
-        field.setAccessible(true);
         field.set(instance, valueToSet);
+        // saved when the context closes, see registerDataStorage
+        bindings.bind(key, instance, field.name(), field.type(), field::get, field::set);
+    }
 
-        /*CleanupRegistry.addTask(() -> {
-            try {
-                field.setAccessible(true);
-                Object currentValue = field.get(instance);
-                String valueToStore = convertToString(currentValue, field.getType());
-                storageService.save(key, valueToStore);
-            } catch (IllegalAccessException e) {
-                logger.error("Failed to save DataStorage field {}", key, e);
-            }
-        }, DEFAULT_LEVEL);*/
+    public static void injectMethods(Class<?> clazz, Object instance, int level) {
+        await(processInitMethod(clazz, instance, Runnable::run, null));
+        processPreDestroyMethod(clazz, instance, level);
     }
 
-    private static String convertToString(Object value, Class<?> type) {
-        if (value == null) return null;
-        if (type.isEnum()) {
-            return ((Enum<?>) value).name();
+    /**
+     * Runs the init methods in {@code order}. Plain methods run on the calling thread; {@code async}
+     * methods are started on the executor (the async init executor during startup) and returned
+     * futures are not waited for.
+     *
+     * @return a future completing when every method, including asynchronous ones, has completed
+     */
+    private static CompletableFuture<Void> processInitMethod(Class<?> clazz, Object instance, Executor executor, InitTracker tracker){
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (InjectionPlan.LifecycleMethod initMethod : InjectionPlan.of(clazz).getInitMethods()) {
+            validateInitMethod(initMethod);
+            if (initMethod.async()) {
+                pending.add(CompletableFuture
+                        .supplyAsync(() -> invokeInitMethod(clazz, instance, initMethod, true, tracker), executor)
+                        .thenCompose(Function.identity()));
+            } else {
+                pending.add(invokeInitMethod(clazz, instance, initMethod, false, tracker));
+            }
         }
-        return value.toString();
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new));
     }
 
-    public static void injectMethods(Class<?> clazz, Object instance, int level) {
-        processInitMethod(clazz, instance);
-        processPreDestroyMethod(clazz, instance, level);
-    }
+    private static CompletableFuture<Void> invokeInitMethod(Class<?> clazz, Object instance, InjectionPlan.LifecycleMethod initMethod,
+                                                            boolean async, InitTracker tracker) {
+        String method = initMethod.name();
+        InitMethodEvent event = new InitMethodEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            Object[] params = resolveMethodParameters(initMethod);
+            result = initMethod.invoke(instance, params);
+        } catch (Throwable e) {
+            logger.error("Init method failed: {}", method, e);
+            recordInitMethod(tracker, event, clazz, method, async, start, e);
+            throw new RuntimeException("Init method execution failed", e);
+        }
 
-    private static void processInitMethod(Class<?> clazz, Object instance){
-        List<Method> initMethods = Arrays.stream(clazz.getDeclaredMethods())
-                .filter(m -> m.isAnnotationPresent(OnInit.class))
-                .sorted(Comparator.comparingInt(m -> m.getAnnotation(OnInit.class).order()))
-                .toList();
+        if (result instanceof CompletionStage<?> stage) {
+            return stage.toCompletableFuture().handle((value, failure) -> {
+                Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                recordInitMethod(tracker, event, clazz, method, true, start, cause);
+                if (cause != null) {
+                    logger.error("Init method failed: {}", method, cause);
+                    throw new CompletionException(new RuntimeException("Init method execution failed", cause));
+                }
+                return null;
+            });
+        }
+        recordInitMethod(tracker, event, clazz, method, async, start, null);
+        return CompletableFuture.completedFuture(null);
+    }
 
-        for (Method method : initMethods) {
-            validateInitMethod(method);
-            try {
-                Object[] params = resolveMethodParameters(method);
-                method.setAccessible(true);
-                method.invoke(instance, params);
-            } catch (Exception e) {
-                logger.error("Init method failed: {}", method.getName(), e);
-                throw new RuntimeException("Init method execution failed", e);
-            }
+    private static void recordInitMethod(InitTracker tracker, InitMethodEvent event, Class<?> clazz, String method,
+                                         boolean async, long start, Throwable failure) {
+        long nanos = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.componentClass = clazz.getName();
+            event.method = method;
+            event.async = async;
+            event.failed = failure != null;
+            event.commit();
+        }
+        if (tracker != null) {
+            tracker.record(new InitTracker.Timing(clazz.getName(), method, async, nanos, failure));
         }
     }
 
     private static void processPreDestroyMethod(Class<?> clazz, Object instance, int level) {
-        Arrays.stream(clazz.getDeclaredMethods())
-                .filter(method -> method.isAnnotationPresent(PreDestroy.class))
-                .forEach(method -> {
+        InjectionPlan.of(clazz).getPreDestroyMethods()
+                .forEach(preDestroy -> {
                     CleanupRegistry.register(() -> {
                         try {
-                            method.setAccessible(true);
-                            method.invoke(instance);
-                        } catch (Exception e) {
+                            preDestroy.invoke(instance, new Object[0]);
+                        } catch (Throwable e) {
                             throw new FrameworkException(e.getMessage());
                         }
-                    }, level);
+                    }, level, clazz.getName() + "." + preDestroy.name());
                 });
     }
 
-    private static void validateInitMethod(Method method) {
-        if (method.getParameterCount() > 0 && !canResolveMethodParameters(method)) {
-            throw new IllegalStateException("Unresolvable parameters for method: " + method.getName());
+    private static void validateInitMethod(InjectionPlan.LifecycleMethod method) {
+        if (!method.parameters().isEmpty() && !canResolveMethodParameters(method)) {
+            throw new IllegalStateException("Unresolvable parameters for method: " + method.name());
         }
     }
 
-    private static boolean canResolveMethodParameters(Method method) {
-        return Arrays.stream(method.getParameters())
+    private static boolean canResolveMethodParameters(InjectionPlan.LifecycleMethod method) {
+        return method.parameters().stream()
                 .allMatch(param ->
-                        ComponentStore.components.containsKey(param.getType().getName()) ||
-                                param.isAnnotationPresent(DefaultParameter.class)
+                        ComponentStore.hasComponent(param.key()) ||
+                                param.defaultValue() != null
                 );
     }
 
-    private static Object[] resolveMethodParameters(Method method) {
-        return Arrays.stream(method.getParameters())
+    private static Object[] resolveMethodParameters(InjectionPlan.LifecycleMethod method) {
+        return method.parameters().stream()
                 .map(param -> {
-                    Object component = ComponentStore.components.get(param.getType().getName());
+                    Object component = ComponentStore.getComponent(param.key());
                     if (component != null) return component;
-                    throw new IllegalStateException("Cannot resolve parameter: " + param.getName());
+                    throw new IllegalStateException("Cannot resolve parameter: " + param.name());
                 })
                 .toArray();
     }
@@ -494,4 +1124,76 @@ public class ComponentProcessor {
 
         throw new IllegalArgumentException("Unsupported parameter type: " + type.getName());
     }
-}
\ No newline at end of file
+
+    /**
+     * Wiring state of one startup: the groups of mutually dependent components, dependencies
+     * first, and the future of every group already scheduled by an earlier tier.
+     */
+    private static final class ComponentWiring {
+        private final Executor executor;
+        private final Executor asyncExecutor;
+        private final StartupRecorder recorder;
+        private final List<List<ComponentGraph.Node>> groups;
+        private final Map<ComponentGraph.Node, Integer> groupOf = new IdentityHashMap<>();
+        private final CompletableFuture<?>[] scheduled;
+        private final InitTracker tracker;
+
+        private ComponentWiring(ComponentGraph graph, Executor executor, Executor asyncExecutor, StartupRecorder recorder) {
+            this.executor = executor;
+            this.asyncExecutor = ApplicationContext.current().bind(asyncExecutor);
+            this.recorder = recorder;
+            this.tracker = new InitTracker(recorder);
+            this.groups = graph.stronglyConnectedComponents();
+            this.scheduled = new CompletableFuture<?>[groups.size()];
+            for (int i = 0; i < groups.size(); i++) {
+                for (ComponentGraph.Node node : groups.get(i)) {
+                    groupOf.put(node, i);
+                }
+            }
+            // a group cannot wait for the initialization of one of its own members
+            for (ComponentGraph.Node node : graph.getNodes()) {
+                for (ComponentGraph.Node dependency : node.getInitDependencies()) {
+                    if (groupOf.get(node).equals(groupOf.get(dependency))) {
+                        throw new FrameworkException("Circular @OnInit dependsOn between components " + node.getKey()
+                                + " and " + dependency.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * State of one startup: its recorder and the modules the main class enabled.
+     */
+    private static final class Startup {
+        private final StartupRecorder recorder = new StartupRecorder();
+        private boolean apiClientsEnabled;
+        private boolean javaFxEnabled;
+        private List<ComponentInitializer> componentInitializers = List.of();
+        // annotations routed to component initializers; empty when one of them wants every annotated class
+        private Set<String> initializerAnnotations = Set.of();
+    }
+
+    /**
+     * Components found for a main class, with the generated context compiled for it, if any.
+     */
+    private record ScannedComponents(List<ComponentIndex.Entry> entries, List<Class<?>> classes,
+                                     ComponentBindings bindings) {
+    }
+
+    private static final class StartupThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private StartupThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+/**
+ * Component wiring generated at compile time for one {@code @ComponentScan} class.
+ * <p>
+ * When the application is compiled with {@code -Aitech.generateContext=true}, the
+ * {@link io.github.itech_framework.core.processor.annotation_processor.ComponentIndexProcessor}
+ * generates an implementation named after the main class ({@code Main_ITechContext}) that registers,
+ * for every component it can handle, direct calls to its constructor, injected fields and lifecycle
+ * methods. At startup the framework uses those bindings instead of reflection; components missing
+ * from the context (e.g. with private members) are processed reflectively as before.
+ * </p>
+ * Generated code only; applications do not implement this interface.
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public interface GeneratedComponentContext {
+    /**
+     * Processor option enabling the generated context.
+     */
+    String GENERATE_OPTION = "itech.generateContext";
+
+    /**
+     * System property that, set to {@code false}, makes startup ignore a generated context.
+     */
+    String ENABLED_PROPERTY = "itech.context.generated";
+
+    void register(ComponentBindings bindings);
+
+    /**
+     * @param mainClassName binary name of the {@code @ComponentScan} class
+     * @return binary name of the context generated for it
+     */
+    static String contextClassName(String mainClassName) {
+        int packageEnd = mainClassName.lastIndexOf('.');
+        return mainClassName.substring(0, packageEnd + 1)
+                + mainClassName.substring(packageEnd + 1).replace('$', '_') + "_ITechContext";
+    }
+}
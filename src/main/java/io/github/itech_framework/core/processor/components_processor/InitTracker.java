@@ -0,0 +1,92 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+import io.github.itech_framework.core.startup.StartupRecorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects the timing of every {@code @OnInit} method of one startup and the futures of the
+ * asynchronous ones, so startup can wait for them and report the first failure.
+ */
+final class InitTracker {
+    private static final Logger logger = LogManager.getLogger(InitTracker.class);
+
+    private final StartupRecorder recorder;
+    private final ConcurrentLinkedQueue<Timing> timings = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<CompletableFuture<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Timing> firstFailure = new AtomicReference<>();
+
+    record Timing(String component, String method, boolean async, long nanos, Throwable failure) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s.%s %.1f ms%s%s", component, method, nanos / 1_000_000.0,
+                    async ? " (async)" : "", failure != null ? " FAILED" : "");
+        }
+    }
+
+    InitTracker(StartupRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    void record(Timing timing) {
+        timings.add(timing);
+        recorder.addInitMethod(timing.component(), timing.method(), timing.nanos());
+        if (timing.failure() != null) {
+            firstFailure.compareAndSet(null, timing);
+        }
+    }
+
+    void track(CompletableFuture<?> future) {
+        pending.add(future);
+    }
+
+    List<Timing> getTimings() {
+        return List.copyOf(timings);
+    }
+
+    /**
+     * Waits until every tracked future has completed.
+     *
+     * @throws RuntimeException carrying the first failure and the per-method timings
+     */
+    void awaitAll() {
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException ignored) {
+            // failures are recorded with their timing
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Init method timings:\n{}", describeTimings());
+        }
+        RuntimeException failure = failure(null);
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * @return an exception describing the first recorded failure, or {@code cause} if none was recorded
+     */
+    RuntimeException failure(RuntimeException cause) {
+        Timing failed = firstFailure.get();
+        if (failed == null) return cause;
+        return new RuntimeException("Init method " + failed.component() + "." + failed.method() + " failed: "
+                + failed.failure().getMessage() + "\nInit method timings:\n" + describeTimings(), failed.failure());
+    }
+
+    private String describeTimings() {
+        List<Timing> sorted = new ArrayList<>(timings);
+        sorted.sort(Comparator.comparingLong(Timing::nanos).reversed());
+        StringBuilder description = new StringBuilder();
+        for (Timing timing : sorted) {
+            description.append("  ").append(timing).append('\n');
+        }
+        return description.toString();
+    }
+}
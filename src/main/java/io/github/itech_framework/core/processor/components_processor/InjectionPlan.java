@@ -0,0 +1,338 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+import io.github.itech_framework.core.annotations.methods.OnInit;
+import io.github.itech_framework.core.annotations.parameters.DefaultParameter;
+import io.github.itech_framework.core.annotations.properties.Property;
+import io.github.itech_framework.core.annotations.reactives.Rx;
+import io.github.itech_framework.core.annotations.storage.DataStorage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Injection steps of one component class, built once and cached in a {@link ClassValue}.
+ * <p>
+ * Plans registered from a {@link GeneratedComponentContext} call constructors, fields and methods
+ * directly. Other plans are built from the class's {@link ComponentDescriptor}: annotated fields
+ * are written through method handles instead of {@link Field#set}, and
+ * {@code @OnInit}/{@code @PreDestroy} methods are called through invokers generated with
+ * {@link LambdaMetafactory} (method handles where a lambda cannot be spun, e.g. for methods
+ * with parameters or classes of another class loader).
+ * </p>
+ */
+final class InjectionPlan {
+    private static final Logger logger = LogManager.getLogger(InjectionPlan.class);
+
+    // plans of generated contexts, returned by PLANS instead of reflective ones; kept with the class,
+    // so they do not keep the class loader of an application reachable once it is gone
+    private static final ClassValue<AtomicReference<InjectionPlan>> GENERATED_PLANS = new ClassValue<>() {
+        @Override
+        protected AtomicReference<InjectionPlan> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            InjectionPlan generated = GENERATED_PLANS.get(type).get();
+            return generated != null ? generated : new InjectionPlan(type);
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Factory factory;
+    private final List<FieldInjection> fields;
+    private final List<LifecycleMethod> initMethods;
+    private final List<LifecycleMethod> preDestroyMethods;
+
+    /**
+     * A constructor or method parameter.
+     *
+     * @param defaultValue the {@code @DefaultParameter} value, or {@code null}
+     */
+    record ParameterBinding(String name, Class<?> type, String defaultValue) {
+        static ParameterBinding of(Parameter parameter) {
+            DefaultParameter defaultParameter = parameter.getAnnotation(DefaultParameter.class);
+            return new ParameterBinding(parameter.getName(), parameter.getType(),
+                    defaultParameter == null ? null : defaultParameter.value());
+        }
+
+        String key() {
+            return type.getName();
+        }
+    }
+
+    /**
+     * The constructor creating the component.
+     */
+    record Factory(List<ParameterBinding> parameters, Instantiator instantiator) {
+        static Factory of(Constructor<?> constructor) {
+            return new Factory(Arrays.stream(constructor.getParameters()).map(ParameterBinding::of).toList(),
+                    constructor::newInstance);
+        }
+
+        Object newInstance(Object[] args) throws Exception {
+            return instantiator.newInstance(args);
+        }
+    }
+
+    @FunctionalInterface
+    interface Instantiator {
+        Object newInstance(Object[] args) throws Exception;
+    }
+
+    /**
+     * {@code @Property} values of a field.
+     */
+    record PropertyBinding(String key, String defaultValue) {
+    }
+
+    /**
+     * {@code @DataStorage} values of a field, with the key already defaulted to the field name.
+     */
+    record StorageBinding(String key, String defaultValue) {
+    }
+
+    /**
+     * An annotated field with its annotation values and accessors. Absent annotations are {@code null}.
+     *
+     * @param rxKey           the key of the injected component, {@code null} without {@code @Rx}
+     * @param rxComponentType {@code T} of an unnamed {@code @Rx List<T>} or {@code Map<String, T>} field,
+     *                        injected with every component of the type; {@code null} otherwise
+     */
+    record FieldInjection(String name, Class<?> type, PropertyBinding property, String rxKey,
+                          Class<?> rxComponentType, StorageBinding dataStorage, Accessor accessor) {
+        Object get(Object instance) {
+            try {
+                return accessor.get(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read field " + name, e);
+            }
+        }
+
+        void set(Object instance, Object value) {
+            try {
+                accessor.set(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot write field " + name, e);
+            }
+        }
+    }
+
+    interface Accessor {
+        Object get(Object instance) throws Throwable;
+
+        void set(Object instance, Object value) throws Throwable;
+    }
+
+    /**
+     * An {@code @OnInit} or {@code @PreDestroy} method with its invoker.
+     *
+     * @param async     {@code OnInit.async()}, {@code false} for {@code @PreDestroy}
+     * @param dependsOn {@code OnInit.dependsOn()}, empty for {@code @PreDestroy}
+     */
+    record LifecycleMethod(String name, List<ParameterBinding> parameters, boolean async,
+                           List<Class<?>> dependsOn, Invoker invoker) {
+        /**
+         * @return the method's return value, {@code null} for {@code void} methods
+         */
+        Object invoke(Object instance, Object[] args) throws Throwable {
+            return invoker.invoke(instance, args);
+        }
+    }
+
+    @FunctionalInterface
+    interface Invoker {
+        Object invoke(Object instance, Object[] args) throws Throwable;
+    }
+
+    static InjectionPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Makes {@link #of} return the given plan instead of one built by reflection, unless a plan for
+     * the class was already requested.
+     */
+    static void register(Class<?> type, InjectionPlan plan) {
+        GENERATED_PLANS.get(type).set(plan);
+    }
+
+    InjectionPlan(Factory factory, List<FieldInjection> fields, List<LifecycleMethod> initMethods,
+                  List<LifecycleMethod> preDestroyMethods) {
+        this.factory = factory;
+        this.fields = List.copyOf(fields);
+        this.initMethods = List.copyOf(initMethods);
+        this.preDestroyMethods = List.copyOf(preDestroyMethods);
+    }
+
+    private InjectionPlan(Class<?> type) {
+        ComponentDescriptor descriptor = ComponentDescriptor.of(type);
+        // the constructor of a scanned component depends on the components available at startup
+        this.factory = null;
+        this.fields = descriptor.getInjectableFields().stream()
+                .map(InjectionPlan::fieldInjection)
+                .toList();
+        this.initMethods = descriptor.getInitMethods().stream()
+                .map(InjectionPlan::lifecycleMethod)
+                .toList();
+        this.preDestroyMethods = descriptor.getPreDestroyMethods().stream()
+                .map(InjectionPlan::lifecycleMethod)
+                .toList();
+    }
+
+    /**
+     * @return the constructor chosen at compile time, or {@code null} when it is chosen at startup
+     */
+    Factory getFactory() {
+        return factory;
+    }
+
+    List<FieldInjection> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the {@code @OnInit} methods declared by the class, in {@code order}
+     */
+    List<LifecycleMethod> getInitMethods() {
+        return initMethods;
+    }
+
+    List<LifecycleMethod> getPreDestroyMethods() {
+        return preDestroyMethods;
+    }
+
+    private static FieldInjection fieldInjection(Field field) {
+        Property property = field.getAnnotation(Property.class);
+        Rx rx = field.getAnnotation(Rx.class);
+        DataStorage dataStorage = field.getAnnotation(DataStorage.class);
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            MethodHandle setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            Accessor accessor = new Accessor() {
+                @Override
+                public Object get(Object instance) throws Throwable {
+                    return (Object) getter.invokeExact(instance);
+                }
+
+                @Override
+                public void set(Object instance, Object value) throws Throwable {
+                    setter.invokeExact(instance, value);
+                }
+            };
+            return new FieldInjection(field.getName(), field.getType(),
+                    property == null ? null : new PropertyBinding(property.key(), property.defaultValue()),
+                    rx == null ? null : rx.name().isEmpty() ? field.getType().getName() : rx.name(),
+                    rx == null || !rx.name().isEmpty() ? null : componentType(field.getType(), field.getGenericType()),
+                    dataStorage == null ? null : new StorageBinding(
+                            dataStorage.key().isEmpty() ? field.getName() : dataStorage.key(), dataStorage.defaultValue()),
+                    accessor);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field.getName() + " of " + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * @return {@code T} of a {@code List<T>} or {@code Map<String, T>} field type, or {@code null} for
+     * other types and type arguments that do not name a class
+     */
+    static Class<?> componentType(Class<?> type, Type genericType) {
+        if ((type != List.class && type != Map.class) || !(genericType instanceof ParameterizedType parameterized)) {
+            return null;
+        }
+        Type[] arguments = parameterized.getActualTypeArguments();
+        if (type == Map.class && arguments[0] != String.class) return null;
+        Type argument = arguments[arguments.length - 1];
+        if (argument instanceof WildcardType wildcard && wildcard.getLowerBounds().length == 0) {
+            argument = wildcard.getUpperBounds()[0];
+        }
+        if (argument instanceof ParameterizedType parameterizedArgument) argument = parameterizedArgument.getRawType();
+        return argument instanceof Class<?> componentType && componentType != Object.class && !componentType.isArray()
+                ? componentType : null;
+    }
+
+    private static LifecycleMethod lifecycleMethod(Method method) {
+        List<ParameterBinding> parameters = Arrays.stream(method.getParameters()).map(ParameterBinding::of).toList();
+        OnInit onInit = method.getAnnotation(OnInit.class);
+        boolean async = onInit != null && onInit.async();
+        List<Class<?>> dependsOn = onInit == null ? List.of() : List.of(onInit.dependsOn());
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+
+            // the return value only matters for futures, which a Consumer would drop
+            if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())
+                    && !CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+                Consumer<Object> consumer = spinConsumer(method);
+                if (consumer != null) {
+                    return new LifecycleMethod(method.getName(), parameters, async, dependsOn, (instance, args) -> {
+                        consumer.accept(instance);
+                        return null;
+                    });
+                }
+            }
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            MethodHandle invoker = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+            return new LifecycleMethod(method.getName(), parameters, async, dependsOn,
+                    (instance, args) -> (Object) invoker.invokeExact(instance, args));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access method " + method.getName() + " of " + method.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Generates a {@code Consumer} calling the no-argument method on its argument, or returns {@code null}
+     * when the declaring class cannot host a lambda for this framework.
+     */
+    @SuppressWarnings("unchecked")
+    private static Consumer<Object> spinConsumer(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    MethodType.methodType(Consumer.class),
+                    MethodType.methodType(void.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, owner));
+            return (Consumer<Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            logger.debug("Using method handle for {}.{}: {}", owner.getName(), method.getName(), e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+import io.github.itech_framework.core.ApplicationContext;
+import io.github.itech_framework.core.exceptions.FrameworkException;
+import io.github.itech_framework.core.store.ComponentStore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Holder of a {@code @Lazy} component: creates, injects and initializes the component on first
+ * use, once, and hands out the proxy registered for its interface keys. The component is created in
+ * the context it was registered in, whichever thread first uses it.
+ */
+final class LazyComponent {
+    private static final Logger logger = LogManager.getLogger(LazyComponent.class);
+
+    private final Class<?> type;
+    private final String key;
+    private final int level;
+    private final List<String> aliases;
+    private final InjectionPlan.Factory factory;
+    private final ApplicationContext context;
+    private volatile Object instance;
+    private boolean creating = false;
+
+    LazyComponent(ComponentGraph.Node node) {
+        this.type = node.getType();
+        this.key = node.getKey();
+        this.level = node.getLevel();
+        this.aliases = node.getAliases();
+        this.factory = node.getFactory();
+        this.context = ApplicationContext.current();
+    }
+
+    Object get() {
+        Object result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    if (creating) {
+                        throw new FrameworkException("Circular dependency while creating lazy component " + key);
+                    }
+                    creating = true;
+                    try {
+                        result = create();
+                    } finally {
+                        creating = false;
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a proxy implementing the given interfaces that delegates every call to the component
+     */
+    Object proxy(List<Class<?>> interfaces) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            try {
+                return method.invoke(get(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), interfaces.toArray(new Class<?>[0]), handler);
+    }
+
+    @SuppressWarnings("try")
+    private Object create() {
+        logger.debug("Creating lazy component {}", key);
+        try (ApplicationContext.Scope ignored = context.enter()) {
+            Object created = ComponentProcessor.createInstance(factory);
+            ComponentProcessor.injectFields(type, created);
+            ComponentProcessor.injectMethods(type, created, level);
+            ComponentStore.registerComponent(key, created, level);
+            // later lookups by interface skip the proxy
+            for (String alias : aliases) {
+                ComponentStore.registerComponent(alias, created, level);
+            }
+            ComponentStore.removeLazyComponent(key);
+            return created;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Component processing failed", e);
+            throw new RuntimeException(e);
+        }
+    }
+}
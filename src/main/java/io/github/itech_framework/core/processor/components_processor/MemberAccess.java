@@ -0,0 +1,22 @@
+package io.github.itech_framework.core.processor.components_processor;
+
+/**
+ * Direct access to the constructors, fields and methods of the components of one package,
+ * generated together with a {@link GeneratedComponentContext}. Members are numbered by the
+ * generated code.
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public interface MemberAccess {
+    Object newInstance(int constructor, Object[] args) throws Exception;
+
+    Object get(int field, Object instance);
+
+    void set(int field, Object instance, Object value);
+
+    /**
+     * @return the method's return value, {@code null} for {@code void} methods
+     */
+    Object invoke(int method, Object instance, Object[] args) throws Exception;
+}
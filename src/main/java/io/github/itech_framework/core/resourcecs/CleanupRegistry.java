@@ -1,38 +1,63 @@
 package io.github.itech_framework.core.resourcecs;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import io.github.itech_framework.core.ApplicationContext;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Cleanup tasks (e.g. {@code @PreDestroy} methods) run when the application shuts down.
+ * <p>
+ * Tasks are kept in buckets by priority; buckets run in ascending priority, the tasks of one bucket
+ * concurrently on up to {@value #THREADS_PROPERTY} threads. Each task may run for
+ * {@value #TASK_TIMEOUT_PROPERTY} milliseconds from when it starts and the whole cleanup for
+ * {@value #DEADLINE_PROPERTY} milliseconds; tasks still running then are interrupted and abandoned,
+ * and tasks and buckets not started are skipped, so a hanging task cannot delay the exit further.
+ * Registration is thread-safe.
+ * </p>
+ * The methods act on the {@link CleanupTasks} of the current {@link ApplicationContext}, which runs
+ * them when the context is closed or the JVM shuts down.
+ */
 public class CleanupRegistry {
-    private static final Logger logger = LogManager.getLogger(CleanupRegistry.class);
-    private static final List<TaskWithPriority> tasks = new ArrayList<>();
+    /**
+     * Milliseconds the whole cleanup may take, {@code 30000} by default.
+     */
+    public static final String DEADLINE_PROPERTY = "itech.shutdown.deadline";
+
+    /**
+     * Milliseconds a single task may take, {@code 10000} by default.
+     */
+    public static final String TASK_TIMEOUT_PROPERTY = "itech.shutdown.taskTimeout";
+
+    /**
+     * Maximum number of tasks run at once, by default the number of processors but at least {@code 4}.
+     */
+    public static final String THREADS_PROPERTY = "itech.shutdown.threads";
+
+    private static CleanupTasks tasks() {
+        return ApplicationContext.current().getCleanupTasks();
+    }
 
     public static void register(Runnable task, int priority) {
-        tasks.add(new TaskWithPriority(task, priority));
-        tasks.sort(Comparator.comparingInt(TaskWithPriority::priority));
+        tasks().register(task, priority);
     }
 
-    public static void addTask(Runnable task, int priority) {
-        tasks.add(new TaskWithPriority(task, priority));
+    /**
+     * @param name describes the task in timeout reports and Flight Recorder events
+     */
+    public static void register(Runnable task, int priority, String name) {
+        tasks().register(task, priority, name);
     }
 
-
-    public static void cleanup() {
-        logger.info("Starting resource cleanup...");
-        for (TaskWithPriority twp : tasks) {
-            try {
-                logger.debug("Executing cleanup task with priority: {}", twp.priority());
-                twp.task().run();
-            } catch (Exception e) {
-                logger.error("Cleanup task failed", e);
-            }
-        }
-        logger.info("Resource cleanup completed.");
+    public static void addTask(Runnable task, int priority) {
+        tasks().addTask(task, priority);
     }
 
-    private record TaskWithPriority(Runnable task, int priority) {}
-}
\ No newline at end of file
+    /**
+     * Runs and removes every registered task.
+     *
+     * @return the names of the tasks that did not complete in time, including those never started
+     */
+    public static List<String> cleanup() {
+        return tasks().cleanup();
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.itech_framework.core.resourcecs;
+
+import io.github.itech_framework.core.ApplicationContext;
+import io.github.itech_framework.core.startup.CleanupTaskEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cleanup tasks (e.g. {@code @PreDestroy} methods) of one {@link ApplicationContext}, run when it is
+ * closed. {@link CleanupRegistry} offers the same methods statically for the current context.
+ * <p>
+ * Tasks are kept in buckets by priority; buckets run in ascending priority, the tasks of one bucket
+ * concurrently on up to {@value CleanupRegistry#THREADS_PROPERTY} threads and with the context entered.
+ * Each task may run for {@value CleanupRegistry#TASK_TIMEOUT_PROPERTY} milliseconds from when it starts,
+ * and the whole cleanup for {@value CleanupRegistry#DEADLINE_PROPERTY} milliseconds; tasks still
+ * running then are interrupted and abandoned, and tasks and buckets not started are skipped, so a
+ * hanging task cannot delay the exit further. Registration is thread-safe.
+ * </p>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class CleanupTasks {
+    private static final Logger logger = LogManager.getLogger(CleanupTasks.class);
+
+    private final ConcurrentSkipListMap<Integer, Queue<Task>> buckets = new ConcurrentSkipListMap<>();
+
+    public void register(Runnable task, int priority) {
+        register(task, priority, task.toString());
+    }
+
+    /**
+     * @param name describes the task in timeout reports and Flight Recorder events
+     */
+    public void register(Runnable task, int priority, String name) {
+        buckets.computeIfAbsent(priority, p -> new ConcurrentLinkedQueue<>()).add(new Task(task, priority, name));
+    }
+
+    public void addTask(Runnable task, int priority) {
+        register(task, priority);
+    }
+
+    /**
+     * Runs and removes every registered task.
+     *
+     * @return the names of the tasks that did not complete in time, including those never started
+     */
+    @SuppressWarnings("try")
+    public List<String> cleanup() {
+        logger.info("Starting resource cleanup...");
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(Long.getLong(CleanupRegistry.DEADLINE_PROPERTY, 30_000));
+        long taskTimeout = TimeUnit.MILLISECONDS.toNanos(Long.getLong(CleanupRegistry.TASK_TIMEOUT_PROPERTY, 10_000));
+        List<String> timedOut = new ArrayList<>();
+
+        // bounded, as tasks past the limit are abandoned anyway; daemon threads, so abandoned tasks do
+        // not keep the JVM alive
+        int poolSize = Math.max(1, Integer.getInteger(CleanupRegistry.THREADS_PROPERTY,
+                Math.max(4, Runtime.getRuntime().availableProcessors())));
+        AtomicInteger threads = new AtomicInteger();
+        ApplicationContext context = ApplicationContext.current();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(() -> {
+                try (ApplicationContext.Scope ignored = context.enter()) {
+                    runnable.run();
+                }
+            }, "itech-cleanup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        try {
+            Map.Entry<Integer, Queue<Task>> bucket;
+            while ((bucket = buckets.pollFirstEntry()) != null) {
+                List<Task> tasks = new ArrayList<>(bucket.getValue());
+                if (System.nanoTime() >= deadline) {
+                    tasks.forEach(task -> timedOut.add(task.name()));
+                    continue;
+                }
+                runBucket(executor, tasks, taskTimeout, deadline, timedOut);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!timedOut.isEmpty()) {
+            logger.warn("{} cleanup tasks did not complete in time: {}", timedOut.size(), timedOut);
+        }
+        logger.info("Resource cleanup completed in {} ms.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return timedOut;
+    }
+
+    /**
+     * Runs the tasks and waits for them. The timeout of a task counts from when it starts running, so
+     * tasks queued behind others of the bucket are only held to the deadline until then.
+     */
+    private static void runBucket(ExecutorService executor, List<Task> tasks, long taskTimeout, long deadline,
+                                  List<String> timedOut) {
+        List<Execution> executions = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Execution execution = new Execution(task, taskTimeout, deadline);
+            execution.future = executor.submit(execution);
+            executions.add(execution);
+        }
+        for (Execution execution : executions) {
+            Future<?> future = execution.future;
+            try {
+                while (true) {
+                    if (future.isDone()) {
+                        future.get();
+                        break;
+                    }
+                    long now = System.nanoTime();
+                    long limit = execution.limit();
+                    if (now >= limit) throw new TimeoutException();
+                    // a task not started yet is looked at again once it could have timed out
+                    long wait = execution.started ? limit - now : Math.min(limit - now, taskTimeout);
+                    try {
+                        future.get(wait, TimeUnit.NANOSECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        // loop, the task may have started meanwhile
+                    }
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut.add(execution.task.name());
+            } catch (ExecutionException e) {
+                // the task logs what it throws; this only happens if logging failed as well
+                logger.error("Cleanup task {} failed", execution.task.name(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                timedOut.add(execution.task.name());
+            }
+        }
+    }
+
+    /**
+     * One run of a task, recording when it started.
+     */
+    private static final class Execution implements Runnable {
+        final Task task;
+        private final long taskTimeout;
+        private final long deadline;
+        Future<?> future;
+        volatile boolean started;
+        private volatile long startedAt;
+
+        Execution(Task task, long taskTimeout, long deadline) {
+            this.task = task;
+            this.taskTimeout = taskTimeout;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return when the task times out: its timeout after it started, at most the deadline
+         */
+        long limit() {
+            return started ? Math.min(startedAt + taskTimeout, deadline) : deadline;
+        }
+
+        @Override
+        public void run() {
+            startedAt = System.nanoTime();
+            started = true;
+            task.run(limit());
+        }
+    }
+
+    private record Task(Runnable task, int priority, String name) {
+        void run(long limit) {
+            CleanupTaskEvent event = new CleanupTaskEvent();
+            event.begin();
+            try {
+                logger.debug("Executing cleanup task {} with priority: {}", name, priority);
+                task.run();
+            } catch (Throwable e) {
+                event.failed = true;
+                logger.error("Cleanup task {} failed", name, e);
+            }
+            event.task = name;
+            event.priority = priority;
+            event.timedOut = System.nanoTime() > limit;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.itech_framework.core.startup;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Application class-data sharing (AppCDS) support: a training run that records the classes startup
+ * loads, and a helper that turns the recorded list into a dynamic CDS archive.
+ * <p>
+ * Started with {@code -Ditech.cds.training=<file>}, {@code ITechApplication.run} completes startup
+ * through the {@code DEFAULT} tier (including asynchronous {@code @OnInit} methods), writes every class
+ * loaded so far to the file, runs the cleanup tasks and exits with status 0. The list has the format of
+ * {@code -XX:DumpLoadedClassList}, so it can also feed a static {@code -Xshare:dump}.
+ * </p>
+ * <pre>
+ * java -Ditech.cds.training=app.classlist -cp app.jar:libs/* com.example.Main
+ * java -cp app.jar:libs/* io.github.itech_framework.core.startup.AppCds app.classlist app.jsa
+ * java -XX:SharedArchiveFile=app.jsa -cp app.jar:libs/* com.example.Main
+ * </pre>
+ * The archive is only used with the class path it was created with, which must consist of jars.
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class AppCds {
+    private static final Logger logger = LogManager.getLogger(AppCds.class);
+
+    /**
+     * System property naming the class list file; its presence enables the training run.
+     */
+    public static final String TRAINING_PROPERTY = "itech.cds.training";
+
+    private static final String LOAD_OPTION = "--load";
+
+    private AppCds() {
+    }
+
+    /**
+     * @return the class list file of a training run, or {@code null} for a normal startup
+     */
+    public static Path trainingClassList() {
+        String classList = System.getProperty(TRAINING_PROPERTY);
+        return classList == null || classList.isBlank() ? null : Path.of(classList);
+    }
+
+    /**
+     * Writes the names of all loaded classes that can be loaded again by name, i.e. without hidden
+     * classes such as lambdas and generated reflection accessors.
+     *
+     * @return the number of classes written
+     */
+    public static int writeClassList(Path classList) throws IOException {
+        TreeSet<String> names = new TreeSet<>();
+        for (String line : loadedClasses().split("\n")) {
+            String name = className(line);
+            if (name != null) names.add(name);
+        }
+        Path parent = classList.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (BufferedWriter writer = Files.newBufferedWriter(classList, StandardCharsets.UTF_8)) {
+            writer.write("# Classes loaded by an ITech startup training run\n");
+            for (String name : names) {
+                writer.write(name.replace('.', '/'));
+                writer.write('\n');
+            }
+        }
+        logger.info("Wrote {} classes to {}", names.size(), classList);
+        return names.size();
+    }
+
+    /**
+     * Creates a dynamic CDS archive from a class list by loading its classes in a JVM started with
+     * {@code -XX:ArchiveClassesAtExit} and the class path of this JVM.
+     * <pre>
+     * java -cp &lt;application class path&gt; io.github.itech_framework.core.startup.AppCds &lt;class list&gt; &lt;archive&gt;
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && LOAD_OPTION.equals(args[0])) {
+            load(Path.of(args[1]));
+            return;
+        }
+        if (args.length != 2) {
+            System.err.println("Usage: java -cp <application class path> " + AppCds.class.getName() + " <class list> <archive>");
+            System.exit(2);
+        }
+        System.exit(createArchive(Path.of(args[0]), Path.of(args[1])));
+    }
+
+    /**
+     * @return the exit status of the archiving JVM
+     */
+    public static int createArchive(Path classList, Path archive) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath(),
+                "-cp", System.getProperty("java.class.path"), AppCds.class.getName(), LOAD_OPTION, classList.toString())
+                .inheritIO()
+                .start();
+        return process.waitFor();
+    }
+
+    private static void load(Path classList) throws IOException {
+        ClassLoader loader = ClassLoader.getSystemClassLoader();
+        List<String> lines = Files.readAllLines(classList, StandardCharsets.UTF_8);
+        int loaded = 0;
+        int skipped = 0;
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            try {
+                // loading without initializing, so no application code runs
+                Class.forName(line.trim().replace('/', '.'), false, loader);
+                loaded++;
+            } catch (ClassNotFoundException | LinkageError e) {
+                skipped++;
+            }
+        }
+        System.out.println("Loaded " + loaded + " classes for archiving, skipped " + skipped);
+    }
+
+    private static String loadedClasses() {
+        try {
+            return (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmClassHierarchy",
+                    new Object[]{null}, new String[]{String[].class.getName()});
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot list loaded classes", e);
+        }
+    }
+
+    /**
+     * Parses a line of {@code VM.class_hierarchy}: {@code |  |--name/loader} or, for hidden classes,
+     * {@code |--name/0x.../loader}, optionally followed by a space and a remark.
+     */
+    private static String className(String line) {
+        int start = line.indexOf("--");
+        if (start < 0) {
+            // the root, java.lang.Object
+            return line.isBlank() ? null : line.substring(0, line.indexOf('/'));
+        }
+        String entry = line.substring(start + 2);
+        int space = entry.indexOf(' ');
+        if (space >= 0) entry = entry.substring(0, space);
+        String[] parts = entry.split("/");
+        if (parts.length != 2 || parts[0].startsWith("jdk.internal.reflect.Generated")) return null;
+        return parts[0];
+    }
+}
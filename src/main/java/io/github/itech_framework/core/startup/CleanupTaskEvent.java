@@ -0,0 +1,29 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one task run by {@link io.github.itech_framework.core.resourcecs.CleanupRegistry#cleanup()}.
+ */
+@Name("io.github.itech_framework.CleanupTask")
+@Label("Cleanup Task")
+@Category({"ITech Framework", "Shutdown"})
+@Description("A cleanup task run at shutdown")
+public class CleanupTaskEvent extends Event {
+    @Label("Task")
+    public String task;
+
+    @Label("Priority")
+    public int priority;
+
+    @Label("Failed")
+    public boolean failed;
+
+    @Label("Timed Out")
+    @Description("Whether the task ended after its timeout or the shutdown deadline")
+    public boolean timedOut;
+}
@@ -0,0 +1,19 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the processing of one scanned class.
+ */
+@Name("io.github.itech_framework.ComponentProcessing")
+@Label("Component Processing")
+@Category({"ITech Framework", "Startup"})
+@Description("Registration of one scanned class in the component graph")
+public class ComponentProcessingEvent extends Event {
+    @Label("Component Class")
+    public String componentClass;
+}
@@ -0,0 +1,22 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the injection of one {@code @Property}, {@code @Rx} or {@code @DataStorage} field.
+ */
+@Name("io.github.itech_framework.FieldInjection")
+@Label("Field Injection")
+@Category({"ITech Framework", "Startup"})
+@Description("Injection of one annotated field")
+public class FieldInjectionEvent extends Event {
+    @Label("Component Class")
+    public String componentClass;
+
+    @Label("Field")
+    public String field;
+}
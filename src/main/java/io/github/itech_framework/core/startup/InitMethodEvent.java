@@ -0,0 +1,28 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one {@code @OnInit} method, until its returned future completes.
+ */
+@Name("io.github.itech_framework.InitMethod")
+@Label("Init Method")
+@Category({"ITech Framework", "Startup"})
+@Description("Execution of one @OnInit method")
+public class InitMethodEvent extends Event {
+    @Label("Component Class")
+    public String componentClass;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Asynchronous")
+    public boolean async;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,19 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one phase of application startup.
+ */
+@Name("io.github.itech_framework.StartupPhase")
+@Label("Startup Phase")
+@Category({"ITech Framework", "Startup"})
+@Description("A phase of ComponentProcessor.initialize")
+public class StartupPhaseEvent extends Event {
+    @Label("Phase")
+    public String phase;
+}
@@ -0,0 +1,74 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the timings of one startup into a {@link StartupReport} while committing the matching
+ * Flight Recorder events. Components and init methods may be recorded from any thread.
+ */
+public final class StartupRecorder {
+    private final long start = System.nanoTime();
+    private final ConcurrentLinkedQueue<StartupReport.Timing> phases = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongAdder> components = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<StartupReport.Timing> initMethods = new ConcurrentLinkedQueue<>();
+
+    /**
+     * A running phase, recorded when ended.
+     */
+    public final class Phase {
+        private final String name;
+        private final Event event;
+        private final long phaseStart = System.nanoTime();
+
+        private Phase(String name, Event event) {
+            this.name = name;
+            this.event = event;
+            event.begin();
+        }
+
+        public void end() {
+            event.commit();
+            phases.add(new StartupReport.Timing(name, Duration.ofNanos(System.nanoTime() - phaseStart)));
+        }
+    }
+
+    public Phase phase(String name) {
+        StartupPhaseEvent event = new StartupPhaseEvent();
+        event.phase = name;
+        return new Phase(name, event);
+    }
+
+    public Phase tier(int level) {
+        TierLevelEvent event = new TierLevelEvent();
+        event.level = level;
+        return new Phase("tier " + level, event);
+    }
+
+    /**
+     * Adds time spent on a component to its total.
+     */
+    public void addComponentTime(String component, long nanos) {
+        components.computeIfAbsent(component, key -> new LongAdder()).add(nanos);
+    }
+
+    public void addInitMethod(String component, String method, long nanos) {
+        initMethods.add(new StartupReport.Timing(component + "." + method, Duration.ofNanos(nanos)));
+        addComponentTime(component, nanos);
+    }
+
+    public StartupReport finish() {
+        List<StartupReport.Timing> componentTimings = new ArrayList<>(components.size());
+        components.forEach((component, nanos) ->
+                componentTimings.add(new StartupReport.Timing(component, Duration.ofNanos(nanos.sum()))));
+        return new StartupReport(Duration.ofNanos(System.nanoTime() - start), new ArrayList<>(phases),
+                componentTimings, new ArrayList<>(initMethods));
+    }
+}
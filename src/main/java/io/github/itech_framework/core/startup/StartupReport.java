@@ -0,0 +1,97 @@
+package io.github.itech_framework.core.startup;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timeline of one application startup: the duration of every phase in the order they ran, the time
+ * spent on each component (processing, construction, field injection and {@code @OnInit} methods)
+ * and on each {@code @OnInit} method.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * ITechApplication.run(Main.class);
+ * StartupReport report = ITechApplication.getStartupReport();
+ * report.getSlowestComponents(5).forEach(timing -> log.info("{}", timing));
+ * }</pre>
+ * </p>
+ * The same spans are emitted as Flight Recorder events in the {@code ITech Framework} category.
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class StartupReport {
+    private final Duration total;
+    private final List<Timing> phases;
+    private final List<Timing> components;
+    private final List<Timing> initMethods;
+
+    /**
+     * A named span and its duration; for components the sum of all spans spent on the component.
+     */
+    public record Timing(String name, Duration duration) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %.1f ms", name, duration.toNanos() / 1_000_000.0);
+        }
+    }
+
+    StartupReport(Duration total, List<Timing> phases, List<Timing> components, List<Timing> initMethods) {
+        this.total = total;
+        this.phases = List.copyOf(phases);
+        this.components = slowestFirst(components);
+        this.initMethods = slowestFirst(initMethods);
+    }
+
+    public Duration getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the startup phases in the order they ran
+     */
+    public List<Timing> getPhases() {
+        return phases;
+    }
+
+    public List<Timing> getSlowestPhases(int limit) {
+        return slowestFirst(phases).stream().limit(limit).toList();
+    }
+
+    /**
+     * @return every component, slowest first
+     */
+    public List<Timing> getComponents() {
+        return components;
+    }
+
+    public List<Timing> getSlowestComponents(int limit) {
+        return components.stream().limit(limit).toList();
+    }
+
+    /**
+     * @return every {@code @OnInit} method as {@code Class.method}, slowest first
+     */
+    public List<Timing> getInitMethods() {
+        return initMethods;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "Startup took %.1f ms%n",
+                total.toNanos() / 1_000_000.0));
+        report.append("Phases:").append(System.lineSeparator());
+        phases.forEach(timing -> report.append("  ").append(timing).append(System.lineSeparator()));
+        report.append("Slowest components:").append(System.lineSeparator());
+        getSlowestComponents(10).forEach(timing -> report.append("  ").append(timing).append(System.lineSeparator()));
+        return report.toString();
+    }
+
+    private static List<Timing> slowestFirst(List<Timing> timings) {
+        return timings.stream()
+                .sorted(Comparator.comparing(Timing::duration).reversed())
+                .toList();
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.itech_framework.core.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the wiring of one component tier.
+ */
+@Name("io.github.itech_framework.TierLevel")
+@Label("Tier Level")
+@Category({"ITech Framework", "Startup"})
+@Description("Field injection and @OnInit methods of one component level")
+public class TierLevelEvent extends Event {
+    @Label("Level")
+    public int level;
+}
@@ -0,0 +1,217 @@
+package io.github.itech_framework.core.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator of a {@link DataStorageService} that keeps recently loaded values in memory, so keys read
+ * repeatedly, such as keys polled by a screen, only reach the delegate on a miss.
+ * <p>
+ * At most {@value #CAPACITY_PROPERTY} keys are cached; loading another key evicts the least recently
+ * used one. Keys without a value are cached as well. With {@value #EXPIRE_AFTER_WRITE_PROPERTY} set,
+ * a value is loaded again once it has been cached for that many milliseconds, which bounds how long
+ * changes made to the store by someone else stay unseen. {@link #save} and {@link #saveAll} write to
+ * the delegate and invalidate the keys, so the next load reads the saved value from the delegate.
+ * </p>
+ * <p>
+ * The framework wraps the registered storage service when {@value #CAPACITY_PROPERTY} is set, as a
+ * system property or in the application properties. Closing the cache closes the delegate if it is
+ * {@link AutoCloseable}.
+ * </p>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public class CachingDataStorageService implements DataStorageService, AutoCloseable {
+    /**
+     * Maximum number of cached keys; setting it to a positive number makes the framework cache the
+     * storage service.
+     */
+    public static final String CAPACITY_PROPERTY = "itech.storage.cache.capacity";
+
+    /**
+     * Milliseconds a value stays cached after it was loaded, {@code 0} (no expiry) by default.
+     */
+    public static final String EXPIRE_AFTER_WRITE_PROPERTY = "itech.storage.cache.expireAfterWrite";
+
+    private final DataStorageService delegate;
+    private final long expireAfterWriteNanos;
+    // guarded by itself; in access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries;
+    // incremented by every invalidation, so a load racing with a save does not cache the old value
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * A cached value, {@code null} when the key has none, with the time it was loaded.
+     */
+    private record Entry(String value, long loadedAt) {
+    }
+
+    /**
+     * @param capacity               maximum number of cached keys
+     * @param expireAfterWriteMillis milliseconds a value stays cached, {@code 0} for no expiry
+     */
+    public CachingDataStorageService(DataStorageService delegate, int capacity, long expireAfterWriteMillis) {
+        if (capacity < 1 || expireAfterWriteMillis < 0) {
+            throw new IllegalArgumentException("Invalid cache settings: capacity=" + capacity
+                    + ", expireAfterWrite=" + expireAfterWriteMillis);
+        }
+        this.delegate = delegate;
+        this.expireAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= capacity) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public String load(String key) {
+        long generation;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hits.increment();
+                return entry.value();
+            }
+            generation = invalidations;
+        }
+        misses.increment();
+        String value = delegate.load(key);
+        synchronized (entries) {
+            if (invalidations == generation) entries.put(key, new Entry(value, System.nanoTime()));
+        }
+        return value;
+    }
+
+    /**
+     * Answers cached keys from memory and loads the others from the delegate in one call.
+     */
+    @Override
+    public Map<String, String> loadAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long generation;
+        synchronized (entries) {
+            for (String key : keys) {
+                Entry entry = entries.get(key);
+                if (entry != null && !isExpired(entry)) {
+                    if (entry.value() != null) values.put(key, entry.value());
+                } else {
+                    missing.add(key);
+                }
+            }
+            generation = invalidations;
+        }
+        hits.add(keys.size() - missing.size());
+        if (missing.isEmpty()) return values;
+        misses.add(missing.size());
+        Map<String, String> loaded = delegate.loadAll(missing);
+        values.putAll(loaded);
+        synchronized (entries) {
+            if (invalidations == generation) {
+                long now = System.nanoTime();
+                for (String key : missing) {
+                    entries.put(key, new Entry(loaded.get(key), now));
+                }
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void save(String key, String value) {
+        delegate.save(key, value);
+        synchronized (entries) {
+            entries.remove(key);
+            invalidations++;
+        }
+    }
+
+    @Override
+    public void saveAll(Map<String, String> values) {
+        delegate.saveAll(values);
+        synchronized (entries) {
+            entries.keySet().removeAll(values.keySet());
+            invalidations++;
+        }
+    }
+
+    /**
+     * Removes every cached value.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            invalidations++;
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return expireAfterWriteNanos != 0 && System.nanoTime() - entry.loadedAt() >= expireAfterWriteNanos;
+    }
+
+    /**
+     * @return the number of loaded keys answered from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of loaded keys read from the delegate, because they were not cached or had expired
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of keys evicted to stay within the capacity; expired values are not counted
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of cached keys, including expired ones not loaded again yet
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public DataStorageService getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Closes the delegate if it is {@link AutoCloseable}; the framework's services throw no checked
+     * exception there, others are rethrown wrapped.
+     */
+    @Override
+    public void close() {
+        if (!(delegate instanceof AutoCloseable closeable)) return;
+        try {
+            closeable.close();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new IllegalStateException("Failed to close data storage " + delegate.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.itech_framework.core.storage;
+
+import io.github.itech_framework.core.ApplicationContext;
+import io.github.itech_framework.core.utils.ObjectUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The {@code @DataStorage} fields of one {@link ApplicationContext} by storage key, recorded when the
+ * fields are injected, so saving a key updates exactly the fields bound to it, and the current values
+ * can be persisted when the context closes.
+ * <p>
+ * Several fields, of one or several instances, may be bound to a key. Instances are held weakly:
+ * objects injected outside the component store, such as UI controllers, are dropped once they are
+ * no longer used.
+ * </p>
+ * <p>
+ * Each binding remembers the value its field had when it was bound or last updated, so only fields
+ * changed since are persisted. Values are stored as {@link #toStorageValue(Object)} converts them.
+ * </p>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class DataStorageBindings {
+    private static final Logger logger = LogManager.getLogger(DataStorageBindings.class);
+
+    private final Map<String, Queue<Binding>> bindings = new ConcurrentHashMap<>();
+    // values loaded ahead of injecting the fields of a tier, empty when the key has no value
+    private final Map<String, Optional<String>> preloaded = new ConcurrentHashMap<>();
+
+    /**
+     * Binds a field to the storage key, remembering its current value as the stored one. Binding the
+     * same field of the same instance again only refreshes that value.
+     *
+     * @param type   type the stored value is converted to
+     * @param getter reads the field of the instance
+     * @param setter sets the field of the instance
+     */
+    public void bind(String key, Object instance, String field, Class<?> type, Function<Object, Object> getter,
+                     BiConsumer<Object, Object> setter) {
+        String stored = toStorageValue(getter.apply(instance));
+        Queue<Binding> bound = bindings.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+        synchronized (bound) {
+            for (Binding binding : bound) {
+                if (binding.instance.get() == instance && binding.field.equals(field)) {
+                    binding.stored = stored;
+                    return;
+                }
+            }
+            bound.add(new Binding(new WeakReference<>(instance), field, type, getter, setter, stored));
+        }
+    }
+
+    /**
+     * Loads the keys with one {@link DataStorageService#loadAll} call, so the fields about to be
+     * injected read them from memory until {@link #clearPreloaded()}.
+     */
+    public void preload(DataStorageService storage, Collection<String> keys) {
+        Map<String, String> values = storage.loadAll(keys);
+        for (String key : keys) {
+            preloaded.put(key, Optional.ofNullable(values.get(key)));
+        }
+    }
+
+    /**
+     * @return the value preloaded for the key, empty if it has none, or {@code null} if the key was
+     * not preloaded or has been saved since
+     */
+    public Optional<String> getPreloaded(String key) {
+        return preloaded.get(key);
+    }
+
+    public void clearPreloaded() {
+        preloaded.clear();
+    }
+
+    /**
+     * Sets every field bound to the key to the value, converted to the type of the field.
+     *
+     * @return the number of fields updated
+     */
+    public int update(String key, String value) {
+        preloaded.remove(key);
+        Queue<Binding> bound = bindings.get(key);
+        if (bound == null) return 0;
+        int updated = 0;
+        for (Iterator<Binding> iterator = bound.iterator(); iterator.hasNext(); ) {
+            Binding binding = iterator.next();
+            Object instance = binding.instance.get();
+            if (instance == null) {
+                iterator.remove();
+                continue;
+            }
+            try {
+                Object converted = ObjectUtils.convertValue(value, binding.type);
+                binding.setter.accept(instance, converted);
+                binding.stored = toStorageValue(converted);
+                updated++;
+            } catch (Exception e) {
+                logger.error("Failed to update field {} for key: {}", binding.field, key, e);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Saves the keys whose fields changed since they were bound or last updated with one
+     * {@link DataStorageService#saveAll} call, each with the value of the first live changed field
+     * bound to it. Keys without a changed field, or whose fields are all gone, are skipped.
+     */
+    public void persist(DataStorageService storage) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<Binding, String> saved = new LinkedHashMap<>();
+        bindings.forEach((key, bound) -> {
+            for (Binding binding : bound) {
+                Object instance = binding.instance.get();
+                if (instance == null) continue;
+                try {
+                    String value = toStorageValue(binding.getter.apply(instance));
+                    if (Objects.equals(value, binding.stored)) continue;
+                    values.put(key, value);
+                    saved.put(binding, value);
+                    return;
+                } catch (Exception e) {
+                    logger.error("Failed to persist field {} for key: {}", binding.field, key, e);
+                }
+            }
+        });
+        if (values.isEmpty()) return;
+        storage.saveAll(values);
+        saved.forEach((binding, value) -> binding.stored = value);
+    }
+
+    /**
+     * Converts a field value to the string stored for it: enums by {@link Enum#name()}, so
+     * {@link ObjectUtils#convertValue} reads them back, other values by {@code toString()}.
+     *
+     * @return the string, or {@code null} for {@code null}
+     */
+    public static String toStorageValue(Object value) {
+        if (value == null) return null;
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    private static final class Binding {
+        final WeakReference<Object> instance;
+        final String field;
+        final Class<?> type;
+        final Function<Object, Object> getter;
+        final BiConsumer<Object, Object> setter;
+        // value of the field when it was bound or last updated, as stored
+        volatile String stored;
+
+        Binding(WeakReference<Object> instance, String field, Class<?> type, Function<Object, Object> getter,
+                BiConsumer<Object, Object> setter, String stored) {
+            this.instance = instance;
+            this.field = field;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.stored = stored;
+        }
+    }
+}
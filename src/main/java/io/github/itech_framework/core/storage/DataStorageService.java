@@ -1,6 +1,38 @@
 package io.github.itech_framework.core.storage;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface DataStorageService {
     String load(String key);
     void save(String key, String value);
+
+    /**
+     * Loads several keys at once. The framework loads the {@code @DataStorage} keys of each tier
+     * through this method during startup; services with a cost per call should override it with a
+     * single round trip.
+     *
+     * @return the stored value of every key that has one; keys without a value are absent
+     * @since 1.0.2
+     */
+    default Map<String, String> loadAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>((int) (keys.size() / 0.75f) + 1);
+        for (String key : keys) {
+            String value = load(key);
+            if (value != null) values.put(key, value);
+        }
+        return values;
+    }
+
+    /**
+     * Saves several keys at once, in the iteration order of the map; a {@code null} value removes the
+     * key. The framework saves the {@code @DataStorage} fields through this method when the context
+     * closes.
+     *
+     * @since 1.0.2
+     */
+    default void saveAll(Map<String, String> values) {
+        values.forEach(this::save);
+    }
 }
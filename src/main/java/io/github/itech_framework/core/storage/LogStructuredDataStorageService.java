@@ -0,0 +1,533 @@
+package io.github.itech_framework.core.storage;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * {@link DataStorageService} appending every save to a log of segment files in a directory.
+ * <p>
+ * Each record holds a CRC-32 of its contents, its type (value, removal or snapshot marker), the
+ * key and the value. Reads are served from an in-memory index of the live values, rebuilt when the
+ * service opens by reading the segments through memory-mapped buffers. Reading a segment stops at
+ * the first record that is incomplete or fails its check, such as a record torn by a crash; new
+ * records then go to a new segment. Segments roll over at {@value #SEGMENT_SIZE_PROPERTY} bytes.
+ * </p>
+ * <p>
+ * Once the bytes of replaced and removed values make up {@value #COMPACTION_RATIO_PROPERTY} of the
+ * log, a background thread compacts it: the live values are written to a new segment starting with
+ * a snapshot marker, which makes every older segment obsolete, and the older segments are deleted.
+ * Saves are not held up meanwhile: they go to a segment numbered after the snapshot, and the lock is
+ * only taken to copy the index and to swap the segments.
+ * Records are written without forcing them to the device; the log is forced after compaction and on
+ * {@link #close()}, so a process crash loses nothing, a power loss at most the latest records. A write
+ * that fails part-way is cut off the segment again, or the log rolls over to a new segment if that
+ * fails too, so later records never follow a torn one.
+ * </p>
+ * <p>
+ * The directory is locked while the service is open, against other processes. Within the JVM,
+ * {@link #open(Path)} shares one service per directory: every call is matched by a {@code close()},
+ * and the last one closes the log. {@link LogStructuredStorageModule} registers the shared service when
+ * {@value #DIRECTORY_PROPERTY} is set, so every application context uses the same one.
+ * </p>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public class LogStructuredDataStorageService implements DataStorageService, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(LogStructuredDataStorageService.class);
+
+    /**
+     * Directory of the log; setting it makes {@link LogStructuredStorageModule} register the service.
+     */
+    public static final String DIRECTORY_PROPERTY = "itech.storage.log.dir";
+
+    /**
+     * Size in bytes after which a new segment is started, {@code 8388608} (8 MiB) by default.
+     */
+    public static final String SEGMENT_SIZE_PROPERTY = "itech.storage.log.segmentSize";
+
+    /**
+     * Share of obsolete bytes that triggers compaction, {@code 0.5} by default.
+     */
+    public static final String COMPACTION_RATIO_PROPERTY = "itech.storage.log.compactionRatio";
+
+    // logs smaller than this are not worth compacting
+    private static final long MIN_COMPACTION_BYTES = 64 * 1024;
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte SNAPSHOT = 3;
+    // crc, type, key length, value length
+    private static final int HEADER_SIZE = 4 + 1 + 4 + 4;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // services returned by open(Path), by absolute directory; guarded by the class
+    private static final Map<Path, LogStructuredDataStorageService> shared = new HashMap<>();
+
+    private final Path directory;
+    private final long segmentSize;
+    private final double compactionRatio;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+    // open(Path) calls not matched by a close() yet; guarded by the class
+    private int references = 1;
+
+    // guarded by this
+    private final List<Long> segments = new ArrayList<>();
+    private FileChannel active;
+    private long activeSize;
+    private long totalBytes;
+    private long liveBytes;
+    private boolean compacting;
+    private boolean closed;
+
+    /**
+     * A live value with the size of the record holding it.
+     */
+    private record Entry(String value, int size) {
+    }
+
+    public LogStructuredDataStorageService(Path directory) {
+        this(directory, Long.getLong(SEGMENT_SIZE_PROPERTY, 8L << 20),
+                Double.parseDouble(System.getProperty(COMPACTION_RATIO_PROPERTY, "0.5")));
+    }
+
+    /**
+     * Opens the log in the directory, creating it if needed. Use {@link #open(Path)} to share the log
+     * with other users in the JVM.
+     *
+     * @throws IllegalStateException if another service has the directory open
+     * @throws UncheckedIOException  if the log cannot be read
+     */
+    public LogStructuredDataStorageService(Path directory, long segmentSize, double compactionRatio) {
+        if (segmentSize < HEADER_SIZE || segmentSize > MAX_SEGMENT_SIZE || !(compactionRatio > 0 && compactionRatio < 1)) {
+            throw new IllegalArgumentException("Invalid log settings: segmentSize=" + segmentSize
+                    + ", compactionRatio=" + compactionRatio);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionRatio = compactionRatio;
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            directoryLock = lock(lockChannel, directory);
+            openSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open data storage log in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the service open on the directory through this method, or opens it with the settings
+     * of the system properties. Each call must be matched by one {@link #close()}.
+     *
+     * @throws IllegalStateException if a service opened otherwise has the directory open
+     * @throws UncheckedIOException  if the log cannot be read
+     */
+    public static LogStructuredDataStorageService open(Path directory) {
+        Path key = directory.toAbsolutePath().normalize();
+        synchronized (LogStructuredDataStorageService.class) {
+            LogStructuredDataStorageService service = shared.get(key);
+            if (service != null) {
+                service.references++;
+                return service;
+            }
+            service = new LogStructuredDataStorageService(key);
+            shared.put(key, service);
+            return service;
+        }
+    }
+
+    private static FileLock lock(FileChannel channel, Path directory) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Data storage log " + directory + " is in use");
+        }
+        return lock;
+    }
+
+    private synchronized void openSegments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // a compaction that did not complete
+                    Files.delete(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    numbers.add(Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10));
+                }
+            }
+        }
+        numbers.sort(null);
+
+        // segments before the latest snapshot are obsolete
+        int first = 0;
+        for (int i = numbers.size() - 1; i > 0 && first == 0; i--) {
+            if (startsWithSnapshot(segment(numbers.get(i)))) first = i;
+        }
+        for (int i = 0; i < first; i++) {
+            Files.delete(segment(numbers.get(i)));
+        }
+
+        boolean torn = false;
+        for (long number : numbers.subList(first, numbers.size())) {
+            Path path = segment(number);
+            long size = Files.size(path);
+            long valid = replay(path);
+            if (valid < size) {
+                logger.warn("Ignoring {} bytes after the last valid record of {}", size - valid, path);
+            }
+            torn = valid < size;
+            segments.add(number);
+            totalBytes += size;
+        }
+        if (segments.isEmpty() || torn) {
+            long number = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+            segments.add(number);
+            active = FileChannel.open(segment(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            activeSize = 0;
+        } else {
+            active = FileChannel.open(segment(segments.get(segments.size() - 1)), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            activeSize = active.size();
+        }
+        logger.debug("Opened data storage log {} with {} keys in {} segments", directory, index.size(), segments.size());
+    }
+
+    private static boolean startsWithSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return recordSize(buffer, 0) > 0 && buffer.get(4) == SNAPSHOT;
+        }
+    }
+
+    /**
+     * Applies the valid records of the segment to the index.
+     *
+     * @return the number of bytes up to the first invalid record
+     */
+    private long replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int position = 0;
+            int size;
+            while ((size = recordSize(buffer, position)) > 0) {
+                byte type = buffer.get(position + 4);
+                int keyLength = buffer.getInt(position + 5);
+                int valueLength = buffer.getInt(position + 9);
+                String key = string(buffer, position + HEADER_SIZE, keyLength);
+                if (type == PUT) {
+                    String value = string(buffer, position + HEADER_SIZE + keyLength, valueLength);
+                    Entry previous = index.put(key, new Entry(value, size));
+                    if (previous != null) liveBytes -= previous.size();
+                    liveBytes += size;
+                } else if (type == DELETE) {
+                    Entry previous = index.remove(key);
+                    if (previous != null) liveBytes -= previous.size();
+                }
+                position += size;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * @return the size of the valid record at the position, or {@code -1}
+     */
+    private static int recordSize(ByteBuffer buffer, int position) {
+        int limit = buffer.limit();
+        if (limit - position < HEADER_SIZE) return -1;
+        byte type = buffer.get(position + 4);
+        int keyLength = buffer.getInt(position + 5);
+        int valueLength = buffer.getInt(position + 9);
+        if (type < PUT || type > SNAPSHOT || keyLength < 0 || valueLength < 0
+                || (long) keyLength + valueLength > limit - position - HEADER_SIZE) {
+            return -1;
+        }
+        int size = HEADER_SIZE + keyLength + valueLength;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + 4, size - 4));
+        return (int) crc.getValue() == buffer.getInt(position) ? size : -1;
+    }
+
+    private static String string(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer encode(byte type, String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + valueBytes.length);
+        buffer.putInt(0).put(type).putInt(keyBytes.length).putInt(valueBytes.length).put(keyBytes).put(valueBytes);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, buffer.capacity() - 4);
+        buffer.putInt(0, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private Path segment(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    @Override
+    public String load(String key) {
+        Entry entry = index.get(key);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Appends the value to the log; {@code null} removes the key.
+     *
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    @Override
+    public synchronized void save(String key, String value) {
+        saveAll(Collections.singletonMap(key, value));
+    }
+
+    /**
+     * Appends the values to the log with one write per segment; {@code null} removes the key.
+     *
+     * @throws UncheckedIOException if the records cannot be written
+     */
+    @Override
+    public synchronized void saveAll(Map<String, String> values) {
+        if (closed) throw new IllegalStateException("Data storage log " + directory + " is closed");
+        List<ByteBuffer> records = new ArrayList<>(values.size());
+        List<Map.Entry<String, String>> written = new ArrayList<>(values.size());
+        long size = activeSize;
+        try {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (entry.getValue() == null && !index.containsKey(entry.getKey())) continue;
+                if (size >= segmentSize) {
+                    append(records, written);
+                    roll();
+                    size = 0;
+                }
+                ByteBuffer record = encode(entry.getValue() == null ? DELETE : PUT, entry.getKey(), entry.getValue());
+                size += record.remaining();
+                records.add(record);
+                written.add(entry);
+            }
+            append(records, written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write storage keys " + values.keySet(), e);
+        }
+        if (!compacting && totalBytes >= MIN_COMPACTION_BYTES && totalBytes - liveBytes > compactionRatio * totalBytes) {
+            compacting = true;
+            Thread compaction = new Thread(this::runCompaction, "itech-storage-compaction");
+            compaction.setDaemon(true);
+            compaction.start();
+        }
+    }
+
+    /**
+     * Writes the records to the active segment with one gathering write, then applies the entries
+     * they hold to the index and clears both lists.
+     */
+    private void append(List<ByteBuffer> records, List<Map.Entry<String, String>> entries) throws IOException {
+        if (records.isEmpty()) return;
+        ByteBuffer[] buffers = records.toArray(ByteBuffer[]::new);
+        int[] sizes = new int[buffers.length];
+        long size = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            sizes[i] = buffers[i].remaining();
+            size += sizes[i];
+        }
+        long written = 0;
+        try {
+            while (written < size) written += active.write(buffers);
+        } catch (IOException e) {
+            discardPartialWrite(e);
+            throw e;
+        }
+        activeSize += size;
+        totalBytes += size;
+        for (int i = 0; i < sizes.length; i++) {
+            String key = entries.get(i).getKey();
+            String value = entries.get(i).getValue();
+            Entry previous = value == null ? index.remove(key) : index.put(key, new Entry(value, sizes[i]));
+            if (previous != null) liveBytes -= previous.size();
+            if (value != null) liveBytes += sizes[i];
+        }
+        records.clear();
+        entries.clear();
+    }
+
+    /**
+     * Cuts the active segment back to the end of its last complete record, or rolls over to a new
+     * segment if it cannot be cut, so the next records are not written after a torn one.
+     */
+    private void discardPartialWrite(IOException failure) {
+        try {
+            active.truncate(activeSize);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            try {
+                roll();
+            } catch (IOException rollFailure) {
+                failure.addSuppressed(rollFailure);
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        long number = segments.get(segments.size() - 1) + 1;
+        FileChannel next = FileChannel.open(segment(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.add(number);
+        FileChannel previous = active;
+        active = next;
+        activeSize = 0;
+        previous.close();
+    }
+
+    /**
+     * Rewrites the live values into a new segment and deletes the older ones. Safe to call at any
+     * time; saves continue while it runs. Does nothing if a compaction is already running or the
+     * service is closed.
+     */
+    public void compact() {
+        synchronized (this) {
+            if (compacting || closed) return;
+            compacting = true;
+        }
+        runCompaction();
+    }
+
+    // called with compacting set
+    private void runCompaction() {
+        long number;
+        Map<String, Entry> live;
+        List<Long> obsolete;
+        long obsoleteBytes;
+        synchronized (this) {
+            if (closed) {
+                compacting = false;
+                return;
+            }
+            // the snapshot takes the next number; saves made while it is written go to the one after
+            number = segments.get(segments.size() - 1) + 1;
+            obsolete = new ArrayList<>(segments);
+            obsoleteBytes = totalBytes;
+            live = new HashMap<>(index);
+            try {
+                FileChannel next = FileChannel.open(segment(number + 1), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                FileChannel previous = active;
+                segments.add(number + 1);
+                active = next;
+                activeSize = 0;
+                previous.close();
+            } catch (IOException e) {
+                compacting = false;
+                logger.error("Failed to compact data storage log {}", directory, e);
+                return;
+            }
+        }
+
+        Path target = segment(number);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        long size = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer marker = encode(SNAPSHOT, "", null);
+                size += marker.remaining();
+                write(channel, marker);
+                for (Map.Entry<String, Entry> entry : live.entrySet()) {
+                    ByteBuffer record = encode(PUT, entry.getKey(), entry.getValue().value());
+                    size += record.remaining();
+                    write(channel, record);
+                }
+                channel.force(true);
+            }
+            synchronized (this) {
+                if (closed) {
+                    Files.deleteIfExists(temporary);
+                    return;
+                }
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                segments.removeAll(obsolete);
+                segments.add(0, number);
+                totalBytes += size - obsoleteBytes;
+                logger.debug("Compacted data storage log {} from {} to {} bytes", directory, obsoleteBytes, size);
+                // segments left behind are deleted when the log is opened next
+                for (long segment : obsolete) {
+                    Files.deleteIfExists(segment(segment));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to compact data storage log {}", directory, e);
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // removed when the log is opened next
+            }
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Forces the log to the device and releases the directory, once every {@link #open(Path)} of the
+     * service is matched by a call. Closing a closed service has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (LogStructuredDataStorageService.class) {
+            if (--references > 0) return;
+            shared.remove(directory.toAbsolutePath().normalize(), this);
+            // still holding the class, so a concurrent open(Path) waits until the directory is released
+            closeLog();
+        }
+    }
+
+    private synchronized void closeLog() {
+        if (closed) return;
+        closed = true;
+        try {
+            active.force(true);
+            active.close();
+            directoryLock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close data storage log " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.itech_framework.core.storage;
+
+import io.github.itech_framework.core.module.ComponentRegistry;
+import io.github.itech_framework.core.module.ModuleInitializer;
+import io.github.itech_framework.core.processor.components_processor.ComponentProcessor;
+import io.github.itech_framework.core.store.ComponentStore;
+import io.github.itech_framework.core.utils.PropertiesLoader;
+
+import java.nio.file.Path;
+
+/**
+ * Registers a {@link LogStructuredDataStorageService} as the storage service when
+ * {@value LogStructuredDataStorageService#DIRECTORY_PROPERTY} is set, as a system property or in the
+ * application properties, and no other module registered one. The service is then used instead of
+ * the {@link DefaultDataStorageService}. Application contexts configured with the same directory share
+ * the service, which is closed with the last of them.
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public class LogStructuredStorageModule implements ModuleInitializer {
+    @Override
+    public void initialize(ComponentRegistry registry) {
+        String directory = System.getProperty(LogStructuredDataStorageService.DIRECTORY_PROPERTY,
+                PropertiesLoader.getProperty(LogStructuredDataStorageService.DIRECTORY_PROPERTY, null));
+        if (directory == null || directory.isBlank() || ComponentStore.hasComponent(DataStorageService.class.getName())) {
+            return;
+        }
+        registry.registerComponent(DataStorageService.class.getName(),
+                LogStructuredDataStorageService.open(Path.of(directory)), ComponentProcessor.DEFAULT_LEVEL);
+    }
+}
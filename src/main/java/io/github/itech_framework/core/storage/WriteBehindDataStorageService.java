@@ -0,0 +1,353 @@
+package io.github.itech_framework.core.storage;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator of a {@link DataStorageService} that returns from {@link #save} without waiting for the
+ * delegate and writes the saved values behind, from a background thread.
+ * <p>
+ * Pending saves are kept by key, so saving a key again before it is written replaces the value and
+ * only the last one is written. The writer takes all pending values as one batch once
+ * {@value #BATCH_SIZE_PROPERTY} keys are pending or the oldest has waited
+ * {@value #FLUSH_INTERVAL_PROPERTY} milliseconds. At most {@value #CAPACITY_PROPERTY} keys may be
+ * pending: saving another key then blocks until the writer has caught up. {@link #load} sees pending
+ * values, so a saved value is read back before it is written.
+ * </p>
+ * <p>
+ * When the delegate fails to write a batch, its values are queued again unless the key was saved
+ * since, and the writer retries after a delay that doubles with every failure in a row, up to 30
+ * seconds.
+ * </p>
+ * <p>
+ * {@link #flush()} writes the pending values on the calling thread, {@link #close()} additionally
+ * stops the writer; values it cannot write are dropped and reported. Saves after closing write
+ * through. The framework closes the default storage service as the last cleanup task.
+ * </p>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public class WriteBehindDataStorageService implements DataStorageService, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(WriteBehindDataStorageService.class);
+
+    /**
+     * {@code false} registers the default storage service without write-behind.
+     */
+    public static final String ENABLED_PROPERTY = "itech.storage.writeBehind";
+
+    /**
+     * Number of pending keys that triggers a write, {@code 64} by default.
+     */
+    public static final String BATCH_SIZE_PROPERTY = "itech.storage.batchSize";
+
+    /**
+     * Milliseconds a pending value may wait before it is written, {@code 200} by default.
+     */
+    public static final String FLUSH_INTERVAL_PROPERTY = "itech.storage.flushInterval";
+
+    /**
+     * Maximum number of pending keys, {@code 4096} by default.
+     */
+    public static final String CAPACITY_PROPERTY = "itech.storage.capacity";
+
+    private static final long MIN_RETRY_DELAY_MILLIS = 100;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final DataStorageService delegate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // held while taking and writing a batch, so batches reach the delegate in order
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Map<String, String> pending = new LinkedHashMap<>();
+    private Map<String, String> writing = Collections.emptyMap();
+    private long oldestPending;
+    private boolean closed;
+    // failed batches in a row, and when the writer retries after the last one
+    private int failures;
+    private long retryAt;
+
+    public WriteBehindDataStorageService(DataStorageService delegate) {
+        this(delegate, Integer.getInteger(BATCH_SIZE_PROPERTY, 64), Long.getLong(FLUSH_INTERVAL_PROPERTY, 200),
+                Integer.getInteger(CAPACITY_PROPERTY, 4096));
+    }
+
+    /**
+     * @param batchSize pending keys that trigger a write
+     * @param flushIntervalMillis milliseconds a pending value may wait before it is written
+     * @param capacity pending keys after which {@link #save} blocks
+     */
+    public WriteBehindDataStorageService(DataStorageService delegate, int batchSize, long flushIntervalMillis, int capacity) {
+        if (batchSize < 1 || flushIntervalMillis < 0 || capacity < batchSize) {
+            throw new IllegalArgumentException("Invalid write-behind settings: batchSize=" + batchSize
+                    + ", flushInterval=" + flushIntervalMillis + ", capacity=" + capacity);
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.capacity = capacity;
+        Thread writer = new Thread(this::runWriter, "itech-storage-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public String load(String key) {
+        lock.lock();
+        try {
+            if (pending.containsKey(key)) return pending.get(key);
+            if (writing.containsKey(key)) return writing.get(key);
+        } finally {
+            lock.unlock();
+        }
+        return delegate.load(key);
+    }
+
+    /**
+     * Answers pending keys from memory and loads the others from the delegate in one call.
+     */
+    @Override
+    public Map<String, String> loadAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        List<String> stored = new ArrayList<>(keys.size());
+        lock.lock();
+        try {
+            boolean idle = pending.isEmpty() && writing.isEmpty();
+            for (String key : keys) {
+                if (idle) {
+                    stored.add(key);
+                } else if (pending.containsKey(key)) {
+                    putValue(values, key, pending.get(key));
+                } else if (writing.containsKey(key)) {
+                    putValue(values, key, writing.get(key));
+                } else {
+                    stored.add(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (stored.isEmpty()) return values;
+        if (values.isEmpty()) return delegate.loadAll(stored);
+        values.putAll(delegate.loadAll(stored));
+        return values;
+    }
+
+    private static void putValue(Map<String, String> values, String key, String value) {
+        if (value != null) values.put(key, value);
+    }
+
+    /**
+     * Queues the value; {@code null} removes the key once written.
+     */
+    @Override
+    public void save(String key, String value) {
+        lock.lock();
+        try {
+            while (!closed && pending.size() >= capacity && !pending.containsKey(key)) {
+                notFull.awaitUninterruptibly();
+            }
+            if (!closed) {
+                enqueue(key, value);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        writeLock.lock();
+        try {
+            delegate.save(key, value);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Queues the values; {@code null} removes a key once written.
+     */
+    @Override
+    public void saveAll(Map<String, String> values) {
+        Map<String, String> writeThrough = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String key = entry.getKey();
+                while (!closed && pending.size() >= capacity && !pending.containsKey(key)) {
+                    notFull.awaitUninterruptibly();
+                }
+                if (closed) {
+                    writeThrough.put(key, entry.getValue());
+                    continue;
+                }
+                enqueue(key, entry.getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (writeThrough.isEmpty()) return;
+        writeLock.lock();
+        try {
+            delegate.saveAll(writeThrough);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // called with lock held
+    private void enqueue(String key, String value) {
+        if (pending.isEmpty()) {
+            oldestPending = System.nanoTime();
+            changed.signal();
+        }
+        pending.put(key, value);
+        if (pending.size() == batchSize) changed.signal();
+    }
+
+    /**
+     * Writes every pending value on the calling thread.
+     *
+     * @throws RuntimeException thrown by the delegate; the values stay pending
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            writeBatch();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the writer and writes every pending value. Closing again has no effect.
+     *
+     * @throws IllegalStateException if the delegate fails to write them; they are dropped
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            changed.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            List<String> dropped;
+            lock.lock();
+            try {
+                dropped = new ArrayList<>(pending.keySet());
+                pending = new LinkedHashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            throw new IllegalStateException("Dropped storage keys that could not be written: " + dropped, e);
+        }
+    }
+
+    private void runWriter() {
+        while (awaitBatch()) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                long delay;
+                lock.lock();
+                try {
+                    delay = retryDelayMillis(++failures);
+                    retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+                } finally {
+                    lock.unlock();
+                }
+                logger.error("Write-behind batch failed, retrying in {} ms", delay, e);
+            }
+        }
+    }
+
+    private long retryDelayMillis(int failures) {
+        long delay = Math.max(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), MIN_RETRY_DELAY_MILLIS);
+        for (int i = 1; i < failures && delay < MAX_RETRY_DELAY_MILLIS; i++) delay *= 2;
+        return Math.min(delay, MAX_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * @return {@code false} once closed
+     */
+    private boolean awaitBatch() {
+        lock.lock();
+        try {
+            while (!closed) {
+                if (pending.isEmpty()) {
+                    changed.awaitUninterruptibly();
+                    continue;
+                }
+                long now = System.nanoTime();
+                long wait = failures > 0 ? retryAt - now
+                        : pending.size() >= batchSize ? 0 : oldestPending + flushIntervalNanos - now;
+                if (wait <= 0) return true;
+                try {
+                    changed.awaitNanos(wait);
+                } catch (InterruptedException e) {
+                    // the writer is only stopped by close()
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with writeLock held
+    private void writeBatch() {
+        Map<String, String> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            writing = batch;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean written = false;
+        try {
+            delegate.saveAll(batch);
+            written = true;
+            logger.debug("Wrote {} storage keys", batch.size());
+        } finally {
+            lock.lock();
+            try {
+                writing = Collections.emptyMap();
+                if (written) {
+                    failures = 0;
+                } else {
+                    // queue the batch again, keeping values saved while it was written
+                    if (pending.isEmpty()) oldestPending = System.nanoTime();
+                    batch.putAll(pending);
+                    pending = batch;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package io.github.itech_framework.core.store;
+
+import io.github.itech_framework.core.ApplicationContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Component instances of one {@link ApplicationContext} by key, usually the class name of the
+ * component or of one of its interfaces. {@link ComponentStore} offers the same methods statically
+ * for the current context.
+ * <p>
+ * Registrations go to concurrent maps and keep a per-level index of the keys. Once startup completes,
+ * {@link #freeze()} additionally builds an array-backed snapshot. Lookups by {@link Class} resolve their
+ * key and snapshot slot once per class, so they neither build strings nor allocate, and tiers are
+ * listed from precomputed slots. Lookups by string key stay on the concurrent map, as resolving a slot
+ * costs the same probe. Registering an instance for a key of the snapshot updates it in place;
+ * registering a new key drops the snapshot until the next {@code freeze()}.
+ * </p>
+ * <p>
+ * Every registered instance is also indexed under all its superclasses and transitively implemented
+ * interfaces, so {@link #getComponentsOfType(Class)} needs no scan. Its result is cached per type
+ * until the next registration.
+ * </p>
+ *
+ * @author Sai Zaw Myint
+ * @since 1.0.2
+ */
+public final class ComponentContainer {
+    private static final Logger logger = LogManager.getLogger(ComponentContainer.class);
+
+    private final Map<String, Object> components = new ConcurrentHashMap<>();
+    private final Map<String, Object> componentsView = Collections.unmodifiableMap(components);
+    private final Map<String, Integer> componentLevels = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<?>> lazyComponents = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> levelKeys = new ConcurrentHashMap<>();
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<String>> typeKeys = new ConcurrentHashMap<>();
+
+    private final ClassValue<TypeSlot> typeSlots = new ClassValue<>() {
+        @Override
+        protected TypeSlot computeValue(Class<?> type) {
+            return new TypeSlot(type.getName());
+        }
+    };
+
+    private static final ClassValue<Set<Class<?>>> hierarchies = new ClassValue<>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            Set<Class<?>> types = new LinkedHashSet<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                types.add(current);
+                addInterfaces(current, types);
+            }
+            return Set.copyOf(types);
+        }
+    };
+
+    // guards writes to the maps and the snapshot; reads are lock-free
+    private final Object lock = new Object();
+    private volatile FrozenComponents frozen;
+    // incremented on every change of the type index, invalidating cached type lookups
+    private volatile long typeVersion;
+    private long registrationCount;
+
+    public void registerComponent(String key, Object instance, int level) {
+        synchronized (lock) {
+            components.put(key, instance);
+            setLevel(key, level);
+            indexType(key, instance, level);
+            FrozenComponents snapshot = frozen;
+            if (snapshot != null && !snapshot.update(key, instance, level)) {
+                frozen = null;
+            }
+        }
+    }
+
+    /**
+     * Registers the instance under the key, keeping the level the key was registered with; a new key
+     * gets no level and is not listed by {@link #getComponentsByLevel(int)}.
+     *
+     * @return the instance previously registered under the key, or {@code null}
+     */
+    public Object putComponent(String key, Object instance) {
+        synchronized (lock) {
+            Object previous = components.get(key);
+            Integer level = componentLevels.get(key);
+            if (level != null) {
+                registerComponent(key, instance, level);
+                return previous;
+            }
+            components.put(key, instance);
+            indexType(key, instance, FrozenComponents.NO_LEVEL);
+            FrozenComponents snapshot = frozen;
+            if (snapshot != null && !snapshot.update(key, instance, FrozenComponents.NO_LEVEL)) {
+                frozen = null;
+            }
+            return previous;
+        }
+    }
+
+    /**
+     * Removes the key with its level, its type index entries and any lazy component registered under
+     * it; the snapshot is dropped until the next {@link #freeze()}.
+     *
+     * @return the instance registered under the key, or {@code null}
+     */
+    public Object unregisterComponent(String key) {
+        synchronized (lock) {
+            Object previous = components.remove(key);
+            lazyComponents.remove(key);
+            Integer level = componentLevels.remove(key);
+            if (level != null) {
+                Set<String> keys = levelKeys.get(level);
+                if (keys != null) keys.remove(key);
+            }
+            Registration registration = registrations.remove(key);
+            if (registration != null) {
+                for (Class<?> type : hierarchies.get(registration.instance().getClass())) {
+                    Set<String> keys = typeKeys.get(type);
+                    if (keys != null) keys.remove(key);
+                }
+                typeVersion++;
+            }
+            frozen = null;
+            return previous;
+        }
+    }
+
+    public <T> void registerComponent(Class<T> componentType, T instance, int level) {
+        registerComponent(typeSlots.get(componentType).key, instance, level);
+    }
+
+    // Key of a @Lazy component, created by the supplier on first lookup
+    public void registerLazyComponent(String key, Supplier<?> supplier, int level) {
+        synchronized (lock) {
+            lazyComponents.put(key, supplier);
+            if (componentLevels.putIfAbsent(key, level) == null) {
+                levelKeys.computeIfAbsent(level, l -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+            frozen = null;
+        }
+    }
+
+    // Called once the lazy component is created and registered under its key
+    public void removeLazyComponent(String key) {
+        synchronized (lock) {
+            lazyComponents.remove(key);
+            FrozenComponents snapshot = frozen;
+            if (snapshot != null) snapshot.removeLazy(key);
+        }
+    }
+
+    /**
+     * Builds the read-optimized snapshot of the current registrations. Called by the framework once
+     * startup completes; calling it again after further registrations rebuilds the snapshot.
+     */
+    public void freeze() {
+        synchronized (lock) {
+            frozen = FrozenComponents.build(components, lazyComponents, componentLevels);
+            logger.debug("Froze {} component keys", components.size() + lazyComponents.size());
+        }
+    }
+
+    /**
+     * @return an unmodifiable live view of the created components by key; register and remove through
+     * the methods of this class, so the level and type indexes and the snapshot stay consistent
+     */
+    public Map<String, Object> getComponents() {
+        return componentsView;
+    }
+
+    public boolean isFrozen() {
+        return frozen != null;
+    }
+
+    // Created instances registered with the level; lazy components not created yet are skipped
+    public List<Object> getComponentsByLevel(int level) {
+        FrozenComponents snapshot = frozen;
+        if (snapshot != null) return snapshot.byLevel(level);
+
+        Set<String> keys = levelKeys.get(level);
+        if (keys == null) return new ArrayList<>();
+        List<Object> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object instance = components.get(key);
+            if (instance != null) result.add(instance);
+        }
+        return result;
+    }
+
+    // Level a key was registered with, or null
+    public Integer getComponentLevel(String key) {
+        return componentLevels.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getComponent(Class<T> componentType) {
+        TypeSlot typeSlot = typeSlots.get(componentType);
+        FrozenComponents snapshot = frozen;
+        if (snapshot != null) {
+            Object instance = snapshot.value(typeSlot.slot(snapshot));
+            if (instance != null && !(instance instanceof FrozenComponents.LazyEntry)) {
+                return (Optional<T>) typeSlot.optional(instance);
+            }
+        }
+        return Optional.ofNullable((T) getComponent(typeSlot.key));
+    }
+
+    public boolean hasComponent(Class<?> componentType) {
+        TypeSlot typeSlot = typeSlots.get(componentType);
+        FrozenComponents snapshot = frozen;
+        if (snapshot != null && snapshot.value(typeSlot.slot(snapshot)) != null) return true;
+        return hasComponent(typeSlot.key);
+    }
+
+    public boolean hasComponent(String key) {
+        return components.containsKey(key) || lazyComponents.containsKey(key);
+    }
+
+    /**
+     * Returns every registered component assignable to the type, each instance once even when it is
+     * registered under several keys. Components are ordered by level, then by key; {@code @Lazy}
+     * components are included once created, or through the proxy registered for their interfaces.
+     *
+     * @return an immutable list, empty if no component matches
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getComponentsOfType(Class<T> type) {
+        return (List<T>) typeMembers(type).components();
+    }
+
+    /**
+     * Same components as {@link #getComponentsOfType(Class)}, keyed by the key each instance was
+     * first registered under (its component name or class name).
+     *
+     * @return an immutable map in the order of {@code getComponentsOfType}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getComponentMapOfType(Class<T> type) {
+        return (Map<String, T>) typeMembers(type).byKey();
+    }
+
+    public Object getComponent(String key) {
+        Object component = components.get(key);
+        if (component == null) {
+            Supplier<?> lazyComponent = lazyComponents.get(key);
+            if (lazyComponent != null) return lazyComponent.get();
+        }
+        return component;
+    }
+
+    private TypeMembers typeMembers(Class<?> type) {
+        TypeSlot typeSlot = typeSlots.get(type);
+        long version = typeVersion;
+        TypeMembers members = typeSlot.members;
+        if (members != null && members.version() == version) return members;
+
+        Set<String> keys = typeKeys.get(type);
+        Map<Object, Registration> first = new IdentityHashMap<>();
+        if (keys != null) {
+            for (String key : keys) {
+                Registration registration = registrations.get(key);
+                if (registration == null) continue;
+                first.merge(registration.instance(), registration,
+                        (a, b) -> a.sequence() <= b.sequence() ? a : b);
+            }
+        }
+        List<Registration> ordered = new ArrayList<>(first.values());
+        ordered.sort(Comparator.comparingInt(Registration::level).thenComparing(Registration::key));
+        List<Object> components = new ArrayList<>(ordered.size());
+        Map<String, Object> byKey = new LinkedHashMap<>();
+        for (Registration registration : ordered) {
+            components.add(registration.instance());
+            byKey.put(registration.key(), registration.instance());
+        }
+        members = new TypeMembers(version, List.copyOf(components), Collections.unmodifiableMap(byKey));
+        typeSlot.members = members;
+        return members;
+    }
+
+    private void indexType(String key, Object instance, int level) {
+        Registration previous = registrations.get(key);
+        if (previous != null && previous.instance() == instance && previous.level() == level) return;
+        if (previous != null && previous.instance().getClass() != instance.getClass()) {
+            for (Class<?> type : hierarchies.get(previous.instance().getClass())) {
+                Set<String> keys = typeKeys.get(type);
+                if (keys != null) keys.remove(key);
+            }
+        }
+        long sequence = previous != null && previous.instance() == instance ? previous.sequence() : registrationCount++;
+        registrations.put(key, new Registration(key, instance, level, sequence));
+        for (Class<?> type : hierarchies.get(instance.getClass())) {
+            typeKeys.computeIfAbsent(type, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        typeVersion++;
+    }
+
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+        for (Class<?> iface : type.getInterfaces()) {
+            if (types.add(iface)) addInterfaces(iface, types);
+        }
+    }
+
+    private void setLevel(String key, int level) {
+        Integer previous = componentLevels.put(key, level);
+        if (previous != null && previous != level) {
+            Set<String> keys = levelKeys.get(previous);
+            if (keys != null) keys.remove(key);
+        }
+        levelKeys.computeIfAbsent(level, l -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /**
+     * Key of a class with its slot in the latest snapshot, the last {@link Optional} handed out and the
+     * components of the type.
+     */
+    private static final class TypeSlot {
+        final String key;
+        private volatile SlotCache slotCache;
+        private volatile Optional<?> optional;
+        private volatile TypeMembers members;
+
+        TypeSlot(String key) {
+            this.key = key;
+        }
+
+        int slot(FrozenComponents snapshot) {
+            SlotCache cache = slotCache;
+            if (cache == null || cache.snapshot() != snapshot) {
+                cache = new SlotCache(snapshot, snapshot.indexOf(key));
+                slotCache = cache;
+            }
+            return cache.slot();
+        }
+
+        Optional<?> optional(Object instance) {
+            Optional<?> current = optional;
+            if (current == null || current.get() != instance) {
+                current = Optional.of(instance);
+                optional = current;
+            }
+            return current;
+        }
+    }
+
+    private record SlotCache(FrozenComponents snapshot, int slot) {
+    }
+
+    private record Registration(String key, Object instance, int level, long sequence) {
+    }
+
+    private record TypeMembers(long version, List<Object> components, Map<String, Object> byKey) {
+    }
+}
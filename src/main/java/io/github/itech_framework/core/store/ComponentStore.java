@@ -1,48 +1,163 @@
 package io.github.itech_framework.core.store;
 
+import io.github.itech_framework.core.ApplicationContext;
+
+import java.util.AbstractMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Supplier;
 
+/**
+ * Registry of the component instances by key, usually the class name of the component or of one of
+ * its interfaces.
+ * <p>
+ * The methods act on the {@link ComponentContainer} of the current {@link ApplicationContext}: the
+ * context bound to the calling thread, otherwise the most recently started one. See
+ * {@link ComponentContainer} for how lookups are indexed.
+ * </p>
+ * {@link #components} is a view of the created components of the current context. Putting an entry
+ * registers the instance like {@link #registerComponent(String, Object, int)}, keeping the level of
+ * the key, and removing one unregisters the key; entries cannot be changed through the entry, key or
+ * value sets.
+ */
 public class ComponentStore {
-    public static final Map<String, Object> components = new ConcurrentHashMap<>();
-    private static final Map<String, Integer> componentLevels = new ConcurrentHashMap<>();
+    public static final Map<String, Object> components = new CurrentComponents();
+
+    private static ComponentContainer container() {
+        return ApplicationContext.current().getComponents();
+    }
 
     // Existing methods remain for backward compatibility
     public static void registerComponent(String key, Object instance, int level) {
-        components.put(key, instance);
-        componentLevels.put(key, level);
+        container().registerComponent(key, instance, level);
     }
 
     // New type-safe registration method
     public static <T> void registerComponent(Class<T> componentType, T instance, int level) {
-        String key = componentType.getName();
-        components.put(key, instance);
-        componentLevels.put(key, level);
+        container().registerComponent(componentType, instance, level);
+    }
+
+    // Key of a @Lazy component, created by the supplier on first lookup
+    public static void registerLazyComponent(String key, Supplier<?> supplier, int level) {
+        container().registerLazyComponent(key, supplier, level);
+    }
+
+    // Called once the lazy component is created and registered under its key
+    public static void removeLazyComponent(String key) {
+        container().removeLazyComponent(key);
     }
 
+    /**
+     * Builds the read-optimized snapshot of the current registrations. Called by the framework once
+     * startup completes; calling it again after further registrations rebuilds the snapshot.
+     */
+    public static void freeze() {
+        container().freeze();
+    }
+
+    public static boolean isFrozen() {
+        return container().isFrozen();
+    }
+
+    // Created instances registered with the level; lazy components not created yet are skipped
     public static List<Object> getComponentsByLevel(int level) {
-        return componentLevels.entrySet().stream()
-                .filter(entry -> entry.getValue() == level)
-                .map(entry -> components.get(entry.getKey()))
-                .collect(Collectors.toList());
+        return container().getComponentsByLevel(level);
+    }
+
+    // Level a key was registered with, or null
+    public static Integer getComponentLevel(String key) {
+        return container().getComponentLevel(key);
     }
 
     // Type-safe component retrieval
-    @SuppressWarnings("unchecked")
     public static <T> Optional<T> getComponent(Class<T> componentType) {
-        return Optional.ofNullable((T) components.get(componentType.getName()));
+        return container().getComponent(componentType);
     }
 
     // New helper method for existence check
     public static boolean hasComponent(Class<?> componentType) {
-        return components.containsKey(componentType.getName());
+        return container().hasComponent(componentType);
+    }
+
+    public static boolean hasComponent(String key) {
+        return container().hasComponent(key);
+    }
+
+    /**
+     * Returns every registered component assignable to the type, each instance once even when it is
+     * registered under several keys. Components are ordered by level, then by key; {@code @Lazy}
+     * components are included once created, or through the proxy registered for their interfaces.
+     *
+     * @return an immutable list, empty if no component matches
+     * @since 1.0.2
+     */
+    public static <T> List<T> getComponentsOfType(Class<T> type) {
+        return container().getComponentsOfType(type);
+    }
+
+    /**
+     * Same components as {@link #getComponentsOfType(Class)}, keyed by the key each instance was
+     * first registered under (its component name or class name).
+     *
+     * @return an immutable map in the order of {@code getComponentsOfType}
+     * @since 1.0.2
+     */
+    public static <T> Map<String, T> getComponentMapOfType(Class<T> type) {
+        return container().getComponentMapOfType(type);
     }
 
     // Original method remains for string-based access
     public static Object getComponent(String key) {
-        return components.get(key);
+        return container().getComponent(key);
+    }
+
+    // View of the created components of the current context
+    private static final class CurrentComponents extends AbstractMap<String, Object> {
+        private static Map<String, Object> map() {
+            return container().getComponents();
+        }
+
+        @Override
+        public Object get(Object key) {
+            return map().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map().containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return container().putComponent(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return key instanceof String name ? container().unregisterComponent(name) : null;
+        }
+
+        @Override
+        public int size() {
+            return map().size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return map().keySet();
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return map().values();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return map().entrySet();
+        }
     }
-}
\ No newline at end of file
+}
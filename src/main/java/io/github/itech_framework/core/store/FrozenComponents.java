@@ -0,0 +1,126 @@
+package io.github.itech_framework.core.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Immutable-keyed, array-backed snapshot of the {@link ComponentStore}.
+ * <p>
+ * Every key gets a slot in the value array once, when the snapshot is built. Lookups by class cache
+ * their slot per snapshot and then cost a single array read, and each level keeps the slots of its
+ * keys. Lookups by string key stay on the concurrent maps of the store, whose single probe is as cheap
+ * as resolving the slot. Values stay replaceable for existing keys, so lazily created components do
+ * not invalidate the snapshot.
+ * </p>
+ */
+final class FrozenComponents {
+    static final int NO_LEVEL = Integer.MIN_VALUE;
+
+    private final Map<String, Integer> slots;
+    private final AtomicReferenceArray<Object> values;
+    private final int[] levels;
+    private final Map<Integer, int[]> levelSlots;
+
+    /**
+     * Placeholder of a {@code @Lazy} component not created yet.
+     */
+    record LazyEntry(Supplier<?> supplier) {
+    }
+
+    private FrozenComponents(Map<String, Integer> slots, Object[] values, int[] levels) {
+        this.slots = slots;
+        this.values = new AtomicReferenceArray<>(values);
+        this.levels = levels;
+        this.levelSlots = indexLevels(levels);
+    }
+
+    private static Map<Integer, int[]> indexLevels(int[] levels) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int level : levels) counts.merge(level, 1, Integer::sum);
+        Map<Integer, int[]> slots = new HashMap<>();
+        counts.forEach((level, count) -> slots.put(level, new int[count]));
+        Map<Integer, Integer> filled = new HashMap<>();
+        for (int slot = 0; slot < levels.length; slot++) {
+            int next = filled.merge(levels[slot], 1, Integer::sum) - 1;
+            slots.get(levels[slot])[next] = slot;
+        }
+        return slots;
+    }
+
+    static FrozenComponents build(Map<String, Object> components, Map<String, Supplier<?>> lazyComponents,
+                                  Map<String, Integer> levels) {
+        Set<String> keySet = new HashSet<>(components.keySet());
+        keySet.addAll(lazyComponents.keySet());
+
+        Map<String, Integer> slots = new HashMap<>((int) (keySet.size() / 0.75f) + 1);
+        Object[] values = new Object[keySet.size()];
+        int[] tableLevels = new int[keySet.size()];
+        int slot = 0;
+        for (String key : keySet) {
+            slots.put(key, slot);
+            Object instance = components.get(key);
+            values[slot] = instance != null ? instance : new LazyEntry(lazyComponents.get(key));
+            Integer level = levels.get(key);
+            tableLevels[slot] = level == null ? NO_LEVEL : level;
+            slot++;
+        }
+        return new FrozenComponents(slots, values, tableLevels);
+    }
+
+    /**
+     * @return the slot of the key, or {@code -1}
+     */
+    int indexOf(String key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return the instance in the slot, a {@link LazyEntry}, or {@code null} for {@code -1} and removed entries
+     */
+    Object value(int slot) {
+        return slot < 0 ? null : values.get(slot);
+    }
+
+    /**
+     * Replaces the value of an existing key.
+     *
+     * @return {@code false} if the key is not part of the snapshot or changes its level
+     */
+    boolean update(String key, Object value, int level) {
+        int slot = indexOf(key);
+        if (slot < 0 || levels[slot] != level) return false;
+        values.set(slot, value);
+        return true;
+    }
+
+    /**
+     * Drops a lazy placeholder that was not replaced by its instance.
+     */
+    void removeLazy(String key) {
+        int slot = indexOf(key);
+        if (slot >= 0 && values.get(slot) instanceof LazyEntry entry) {
+            values.compareAndSet(slot, entry, null);
+        }
+    }
+
+    /**
+     * @return the created instances registered with the level
+     */
+    List<Object> byLevel(int level) {
+        int[] slots = levelSlots.get(level);
+        if (slots == null) return new ArrayList<>();
+        List<Object> components = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            Object value = values.get(slot);
+            if (value != null && !(value instanceof LazyEntry)) components.add(value);
+        }
+        return components;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.itech_framework.core.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves meta-annotations of annotation types from their class-file bytes.
+ * <p>
+ * Used by the scanner to recognise stereotypes such as {@code @BusinessLogic} (which is itself
+ * annotated with {@code @Component}) without loading the annotation or the annotated class.
+ * Results are cached per resolver.
+ * </p>
+ */
+public class AnnotationMetadataResolver {
+    private static final Logger logger = LogManager.getLogger(AnnotationMetadataResolver.class);
+
+    private final ClassLoader classLoader;
+    private final Map<String, Map<String, Map<String, Object>>> metaAnnotations = new ConcurrentHashMap<>();
+
+    public AnnotationMetadataResolver(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @return {@code true} if {@code annotationName} is itself annotated with {@code metaAnnotationName}
+     */
+    public boolean isMetaAnnotated(String annotationName, String metaAnnotationName) {
+        return readAnnotations(annotationName).containsKey(metaAnnotationName);
+    }
+
+    /**
+     * @return the explicitly set attribute of the meta-annotation on {@code annotationName}, or {@code null}
+     */
+    public Object getMetaAnnotationValue(String annotationName, String metaAnnotationName, String attribute) {
+        Map<String, Object> values = readAnnotations(annotationName).get(metaAnnotationName);
+        return values == null ? null : values.get(attribute);
+    }
+
+    /**
+     * @return {@code true} if the class carries {@code annotationName} directly or as a (transitive) meta-annotation
+     */
+    public boolean hasAnnotation(ClassFileMetadata metadata, String annotationName) {
+        return findAnnotation(metadata, annotationName) != null;
+    }
+
+    /**
+     * Finds an annotation on the class or, failing that, the nearest meta-annotation of that type,
+     * following meta-annotations transitively.
+     *
+     * @return the explicitly set attributes of the annotation, or {@code null} if absent
+     */
+    public Map<String, Object> findAnnotation(ClassFileMetadata metadata, String annotationName) {
+        Map<String, Object> direct = metadata.annotations().get(annotationName);
+        if (direct != null) return direct;
+
+        Set<String> visited = new HashSet<>(metadata.annotations().keySet());
+        Deque<String> pending = new ArrayDeque<>(metadata.annotations().keySet());
+        while (!pending.isEmpty()) {
+            Map<String, Map<String, Object>> annotations = readAnnotations(pending.poll());
+            Map<String, Object> values = annotations.get(annotationName);
+            if (values != null) return values;
+            for (String annotation : annotations.keySet()) {
+                if (!annotation.startsWith("java.lang.annotation.") && visited.add(annotation)) {
+                    pending.add(annotation);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the annotation types and, transitively, their meta-annotations: every annotation
+     * definition read when classifying classes that carry the given annotations
+     */
+    public Set<String> resolveDefinitions(Collection<String> annotationNames) {
+        Set<String> resolved = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(annotationNames);
+        while (!pending.isEmpty()) {
+            String annotation = pending.poll();
+            if (annotation.startsWith("java.lang.annotation.") || !resolved.add(annotation)) continue;
+            pending.addAll(readAnnotations(annotation).keySet());
+        }
+        return resolved;
+    }
+
+    /**
+     * Digest of the definitions of the annotation types: the meta-annotations each one carries with
+     * their attributes. Changes when one of them is recompiled with other meta-annotations.
+     */
+    public String fingerprint(Collection<String> annotationNames) {
+        ScanCache.Fingerprint fingerprint = new ScanCache.Fingerprint();
+        for (String annotation : new TreeSet<>(annotationNames)) {
+            fingerprint.add(annotation);
+            for (Map.Entry<String, Map<String, Object>> meta : new TreeMap<>(readAnnotations(annotation)).entrySet()) {
+                fingerprint.add(meta.getKey()).add(new TreeMap<>(meta.getValue()).toString());
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    public Set<String> getMetaAnnotations(String annotationName) {
+        return readAnnotations(annotationName).keySet();
+    }
+
+    private Map<String, Map<String, Object>> readAnnotations(String annotationName) {
+        return metaAnnotations.computeIfAbsent(annotationName, this::readAnnotationClass);
+    }
+
+    private Map<String, Map<String, Object>> readAnnotationClass(String annotationName) {
+        String resource = annotationName.replace('.', '/') + ".class";
+        try (InputStream input = classLoader.getResourceAsStream(resource)) {
+            if (input == null) {
+                logger.debug("Annotation class not found on classpath: {}", annotationName);
+                return Map.of();
+            }
+            return ClassFileReader.read(input.readAllBytes()).annotations();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Cannot read annotation {}: {}", annotationName, e.getMessage());
+            return Map.of();
+        }
+    }
+}
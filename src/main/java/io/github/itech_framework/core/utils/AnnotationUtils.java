@@ -1,20 +1,15 @@
 package io.github.itech_framework.core.utils;
 
+import io.github.itech_framework.core.processor.components_processor.ComponentDescriptor;
+
 import java.lang.annotation.Annotation;
 
 public class AnnotationUtils {
 
+    /**
+     * @return {@code true} if the class carries the annotation directly or as a (transitive) meta-annotation
+     */
     public static boolean hasAnnotation(Class<?> clazz, Class<? extends Annotation> annotationType) {
-        if (clazz.isAnnotationPresent(annotationType)) {
-            return true;
-        }
-
-        for (Annotation annotation : clazz.getAnnotations()) {
-            if (annotation.annotationType().isAnnotationPresent(annotationType)) {
-                return true;
-            }
-        }
-
-        return false;
+        return ComponentDescriptor.of(clazz).hasAnnotation(annotationType);
     }
 }
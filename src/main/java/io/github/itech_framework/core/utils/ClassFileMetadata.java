@@ -0,0 +1,42 @@
+package io.github.itech_framework.core.utils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class level information read straight from class-file bytes by {@link ClassFileReader},
+ * without loading the class.
+ *
+ * @param className      binary name of the class
+ * @param accessFlags    class access flags as stored in the class file
+ * @param superClassName binary name of the super class, {@code null} for {@code java.lang.Object}
+ * @param interfaces     binary names of the directly implemented interfaces
+ * @param annotations    runtime visible annotations keyed by annotation class name; the values hold
+ *                       the explicitly set constant and enum attributes of each annotation
+ */
+public record ClassFileMetadata(String className,
+                                int accessFlags,
+                                String superClassName,
+                                List<String> interfaces,
+                                Map<String, Map<String, Object>> annotations) {
+    public static final int ACC_INTERFACE = 0x0200;
+    public static final int ACC_ABSTRACT = 0x0400;
+    public static final int ACC_ANNOTATION = 0x2000;
+
+    public boolean hasAnnotation(String annotationName) {
+        return annotations.containsKey(annotationName);
+    }
+
+    public Object annotationValue(String annotationName, String attribute) {
+        Map<String, Object> values = annotations.get(annotationName);
+        return values == null ? null : values.get(attribute);
+    }
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+}
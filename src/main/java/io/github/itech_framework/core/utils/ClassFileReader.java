@@ -0,0 +1,248 @@
+package io.github.itech_framework.core.utils;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal class-file parser (JVMS chapter 4).
+ * <p>
+ * Reads the constant pool, the class hierarchy entries and the class level
+ * {@code RuntimeVisibleAnnotations} attribute, skipping everything else. This lets the
+ * scanner decide whether a class is interesting before asking a class loader for it, so
+ * classes that are not components are never loaded, linked or initialized.
+ * </p>
+ */
+public class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+    private final byte[] tags;
+    private final String[] strings;
+
+    private ClassFileReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        buffer.getShort(); // minor version
+        buffer.getShort(); // major version
+
+        int count = buffer.getShort() & 0xFFFF;
+        this.offsets = new int[count];
+        this.tags = new byte[count];
+        this.strings = new String[count];
+        for (int i = 1; i < count; i++) {
+            int tag = buffer.get() & 0xFF;
+            tags[i] = (byte) tag;
+            offsets[i] = buffer.position();
+            switch (tag) {
+                case CONSTANT_UTF8 -> buffer.position(buffer.position() + 2 + (buffer.getShort(buffer.position()) & 0xFFFF));
+                case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE ->
+                        skip(2);
+                case CONSTANT_METHOD_HANDLE -> skip(3);
+                case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF,
+                     CONSTANT_INTERFACE_METHODREF, CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC,
+                     CONSTANT_INVOKE_DYNAMIC -> skip(4);
+                case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                    skip(8);
+                    i++; // eight byte constants take two slots
+                }
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    /**
+     * Reads the class level metadata from the given class-file bytes.
+     *
+     * @throws IllegalArgumentException if the bytes are not a well formed class file
+     */
+    public static ClassFileMetadata read(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    public static ClassFileMetadata read(ByteBuffer bytes) {
+        try {
+            return new ClassFileReader(bytes.slice()).readMetadata();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated class file", e);
+        }
+    }
+
+    private ClassFileMetadata readMetadata() {
+        int accessFlags = buffer.getShort() & 0xFFFF;
+        String className = classNameAt(buffer.getShort() & 0xFFFF);
+        int superIndex = buffer.getShort() & 0xFFFF;
+        String superClassName = superIndex == 0 ? null : classNameAt(superIndex);
+
+        int interfaceCount = buffer.getShort() & 0xFFFF;
+        List<String> interfaces = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(classNameAt(buffer.getShort() & 0xFFFF));
+        }
+
+        skipMembers(); // fields
+        skipMembers(); // methods
+
+        Map<String, Map<String, Object>> annotations = Collections.emptyMap();
+        int attributeCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8At(buffer.getShort() & 0xFFFF);
+            int length = buffer.getInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                annotations = readAnnotations();
+            } else {
+                skip(length);
+            }
+        }
+        return new ClassFileMetadata(className, accessFlags, superClassName,
+                Collections.unmodifiableList(interfaces), Collections.unmodifiableMap(annotations));
+    }
+
+    private void skipMembers() {
+        int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            skip(6); // access flags, name index, descriptor index
+            int attributeCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < attributeCount; j++) {
+                skip(2);
+                skip(buffer.getInt());
+            }
+        }
+    }
+
+    private Map<String, Map<String, Object>> readAnnotations() {
+        int count = buffer.getShort() & 0xFFFF;
+        Map<String, Map<String, Object>> annotations = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String type = descriptorToClassName(utf8At(buffer.getShort() & 0xFFFF));
+            annotations.put(type, readAnnotationValues());
+        }
+        return annotations;
+    }
+
+    private Map<String, Object> readAnnotationValues() {
+        int pairs = buffer.getShort() & 0xFFFF;
+        if (pairs == 0) return Collections.emptyMap();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < pairs; i++) {
+            String name = utf8At(buffer.getShort() & 0xFFFF);
+            Object value = readElementValue();
+            if (value != null) {
+                values.put(name, value);
+            }
+        }
+        return values;
+    }
+
+    private Object readElementValue() {
+        char tag = (char) (buffer.get() & 0xFF);
+        switch (tag) {
+            case 's':
+                return utf8At(buffer.getShort() & 0xFFFF);
+            case 'B', 'C', 'I', 'S', 'Z':
+                return intAt(buffer.getShort() & 0xFFFF);
+            case 'D', 'F', 'J':
+                skip(2);
+                return null;
+            case 'e':
+                skip(2); // enum type
+                return utf8At(buffer.getShort() & 0xFFFF);
+            case 'c':
+                return utf8At(buffer.getShort() & 0xFFFF);
+            case '@':
+                skip(2);
+                readAnnotationValues();
+                return null;
+            case '[':
+                int length = buffer.getShort() & 0xFFFF;
+                List<Object> elements = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    Object element = readElementValue();
+                    if (element != null) elements.add(element);
+                }
+                return elements;
+            default:
+                throw new IllegalArgumentException("Unknown element value tag " + tag);
+        }
+    }
+
+    private void skip(int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+
+    private int intAt(int index) {
+        return buffer.getInt(offsets[index]);
+    }
+
+    private String classNameAt(int index) {
+        return utf8At(buffer.getShort(offsets[index]) & 0xFFFF).replace('/', '.');
+    }
+
+    private String utf8At(int index) {
+        String value = strings[index];
+        if (value == null) {
+            if (tags[index] != CONSTANT_UTF8) {
+                throw new IllegalArgumentException("Constant " + index + " is not a UTF8 entry");
+            }
+            value = decodeModifiedUtf8(offsets[index]);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    private String decodeModifiedUtf8(int offset) {
+        int length = buffer.getShort(offset) & 0xFFFF;
+        int position = offset + 2;
+        int end = position + length;
+        char[] chars = new char[length];
+        int count = 0;
+        while (position < end) {
+            int b = buffer.get(position++) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get(position++) & 0x3F));
+            } else {
+                int b2 = buffer.get(position++) & 0x3F;
+                int b3 = buffer.get(position++) & 0x3F;
+                chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private static String descriptorToClassName(String descriptor) {
+        if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.endsWith(";")) {
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+        return descriptor;
+    }
+}
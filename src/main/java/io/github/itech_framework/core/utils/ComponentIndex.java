@@ -0,0 +1,125 @@
+package io.github.itech_framework.core.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Reads and writes the build-time component index.
+ * <p>
+ * The index is generated by
+ * {@link io.github.itech_framework.core.processor.annotation_processor.ComponentIndexProcessor}
+ * into {@value #INDEX_LOCATION} and lists every component class (and JPA entity) of a
+ * compilation unit, so that startup can load exactly those classes instead of walking
+ * the classpath.
+ * </p>
+ */
+public class ComponentIndex {
+    private static final Logger logger = LogManager.getLogger(ComponentIndex.class);
+
+    public static final String INDEX_LOCATION = "META-INF/itech/components.idx";
+
+    /**
+     * Tier value recorded for indexed classes that are not components (e.g. JPA entities).
+     */
+    public static final int NO_LEVEL = -1;
+
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * One indexed class.
+     *
+     * @param className  binary name of the class
+     * @param key        component key, empty for non components
+     * @param level      component tier level or {@link #NO_LEVEL}
+     * @param interfaces interfaces the component is registered under
+     */
+    public record Entry(String className, String key, int level, List<String> interfaces) {
+        public Entry {
+            interfaces = List.copyOf(interfaces);
+        }
+
+        public boolean isComponent() {
+            return level != NO_LEVEL;
+        }
+
+        public boolean isInPackage(String basePackage) {
+            return basePackage.isEmpty() || className.startsWith(basePackage + ".");
+        }
+
+        String toLine() {
+            return className + SEPARATOR + key + SEPARATOR + level + SEPARATOR + String.join(",", interfaces);
+        }
+
+        static Entry parse(String line) {
+            String[] parts = line.split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed component index line: " + line);
+            }
+            List<String> interfaces = parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(","));
+            return new Entry(parts[0], parts[1], Integer.parseInt(parts[2]), interfaces);
+        }
+    }
+
+    /**
+     * Loads all index entries visible to the class loader that belong to the given package.
+     * <p>
+     * The entries only cover classpath roots that contain an index. Startup uses
+     * {@link PackageClassesLoader#scanEntries(String, ClassLoader, java.util.function.Function, boolean, ScanCache, boolean)}
+     * instead, which scans the roots without one.
+     * </p>
+     *
+     * @return the matching entries, or {@code null} when no index is present on the classpath
+     */
+    public static List<Entry> load(String basePackage, ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            logger.debug("Reading component index: {}", resource);
+            try (InputStream input = resource.openStream()) {
+                for (Entry entry : read(input)) {
+                    if (entry.isInPackage(basePackage)) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    public static List<Entry> read(InputStream input) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            entries.add(Entry.parse(line));
+        }
+        return entries;
+    }
+
+    public static void write(Writer writer, Collection<Entry> entries) throws IOException {
+        writer.write("# Generated by the ITech component index processor. Do not edit.\n");
+        for (Entry entry : entries) {
+            writer.write(entry.toLine());
+            writer.write('\n');
+        }
+    }
+}
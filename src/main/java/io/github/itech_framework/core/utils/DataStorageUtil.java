@@ -1,18 +1,19 @@
 package io.github.itech_framework.core.utils;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import io.github.itech_framework.core.annotations.storage.DataStorage;
+import io.github.itech_framework.core.ApplicationContext;
+import io.github.itech_framework.core.storage.DataStorageBindings;
 import io.github.itech_framework.core.storage.DataStorageService;
 import io.github.itech_framework.core.store.ComponentStore;
 
-import java.lang.reflect.Field;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 
 public class DataStorageUtil {
-    private static final Logger logger = LogManager.getLogger(DataStorageUtil.class);
-
+    /**
+     * Sets the {@code @DataStorage} fields bound to the key to the value and saves it to the storage
+     * service. Only fields injected by the framework are updated.
+     */
     public static void save(String key, Object value) {
         if (key == null || value == null) return;
 
@@ -20,7 +21,28 @@ public class DataStorageUtil {
 
         DataStorageService storage = (DataStorageService) ComponentStore.getComponent(DataStorageService.class.getName());
         if (storage != null) {
-            storage.save(key, value.toString());
+            storage.save(key, DataStorageBindings.toStorageValue(value));
+        }
+    }
+
+    /**
+     * Same as {@link #save(String, Object)} for several keys, saved with one
+     * {@link DataStorageService#saveAll} call. Entries with a {@code null} key or value are skipped.
+     *
+     * @since 1.0.2
+     */
+    public static void saveAll(Map<String, ?> values) {
+        Map<String, String> converted = new LinkedHashMap<>();
+        values.forEach((key, value) -> {
+            if (key == null || value == null) return;
+            updateComponentField(key, value);
+            converted.put(key, DataStorageBindings.toStorageValue(value));
+        });
+        if (converted.isEmpty()) return;
+
+        DataStorageService storage = (DataStorageService) ComponentStore.getComponent(DataStorageService.class.getName());
+        if (storage != null) {
+            storage.saveAll(converted);
         }
     }
 
@@ -33,36 +55,6 @@ public class DataStorageUtil {
     }
 
     private static void updateComponentField(String key, Object value) {
-        ComponentStore.components.values().stream()
-                .filter(component -> hasMatchingField(component, key))
-                .forEach(component -> setFieldValue(component, key, value));
-    }
-
-    private static boolean hasMatchingField(Object component, String key) {
-        return Arrays.stream(component.getClass().getDeclaredFields())
-                .anyMatch(f -> {
-                    DataStorage ann = f.getAnnotation(DataStorage.class);
-                    return ann != null &&
-                            (ann.key().isEmpty() ? f.getName() : ann.key()).equals(key);
-                });
-    }
-
-    private static void setFieldValue(Object component, String key, Object value) {
-        try {
-            Field field = Arrays.stream(component.getClass().getDeclaredFields())
-                    .filter(f -> {
-                        DataStorage ann = f.getAnnotation(DataStorage.class);
-                        return ann != null &&
-                                (ann.key().isEmpty() ? f.getName() : ann.key()).equals(key);
-                    })
-                    .findFirst()
-                    .orElseThrow();
-
-            field.setAccessible(true);
-            Object converted = ObjectUtils.convertValue(value.toString(), field.getType());
-            field.set(component, converted);
-        } catch (Exception e) {
-            logger.error("Failed to update field for key: {}", key, e);
-        }
+        ApplicationContext.current().getDataStorageBindings().update(key, DataStorageBindings.toStorageValue(value));
     }
 }
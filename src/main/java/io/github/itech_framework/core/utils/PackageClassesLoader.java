@@ -3,79 +3,517 @@ package io.github.itech_framework.core.utils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class PackageClassesLoader {
     private static final Logger logger = LogManager.getLogger(PackageClassesLoader.class);
 
+    /**
+     * Outcome of a package scan.
+     *
+     * @param classes      the loaded classes
+     * @param loadedCount  number of classes handed to the class loader
+     * @param skippedCount number of class files rejected from their bytes and never loaded
+     */
+    public record ScanResult(List<Class<?>> classes, int loadedCount, int skippedCount) {}
+
     public static List<Class<?>> findAllClasses(String basePackage, Class<?> clazz)
             throws IOException {
+        return scanClasses(basePackage, clazz, null).classes();
+    }
+
+    /**
+     * Scans the package and loads only the classes accepted by the filter.
+     * <p>
+     * Each class file is parsed with {@link ClassFileReader} first, so rejected classes are
+     * never loaded by the class loader.
+     * </p>
+     *
+     * @param filter decides from the class-file metadata whether a class is loaded;
+     *               {@code null} loads every class
+     */
+    public static ScanResult scanClasses(String basePackage, Class<?> clazz,
+                                         Predicate<ClassFileMetadata> filter) throws IOException {
+        return scanClasses(basePackage, clazz, filter, false);
+    }
 
+    /**
+     * Same as {@link #scanClasses(String, Class, Predicate)}, optionally spreading directory
+     * traversal, class-file parsing and class loading over a work-stealing {@link ForkJoinPool}.
+     * Parallel results are sorted by class name so the outcome does not depend on scheduling.
+     */
+    public static ScanResult scanClasses(String basePackage, Class<?> clazz,
+                                         Predicate<ClassFileMetadata> filter, boolean parallel) throws IOException {
         ClassLoader classLoader = clazz.getClassLoader();
+        ForkJoinPool pool = parallel ? new ForkJoinPool(Runtime.getRuntime().availableProcessors()) : null;
+        Collection<Class<?>> found = parallel ? new ConcurrentLinkedQueue<>() : new ArrayList<>();
+        AtomicInteger skipped = new AtomicInteger();
+
+        logger.debug("Scanning package: {} (parallel: {})", basePackage, parallel);
+
+        ClassSink sink = (className, bytes) -> {
+            if (filter != null && !filter.test(ClassFileReader.read(bytes.read()))) {
+                skipped.incrementAndGet();
+                return;
+            }
+            found.add(loadClass(className, classLoader));
+        };
+        try {
+            for (ScanRoot root : findRoots(basePackage, classLoader)) {
+                scanRoot(root, sink, pool);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        List<Class<?>> classes = new ArrayList<>(found);
+        if (parallel) {
+            classes.sort(Comparator.comparing(Class::getName));
+        }
+        logger.info("Loaded {} classes in package {}, skipped {} not matching the filter",
+                classes.size(), basePackage, skipped.get());
+        return new ScanResult(classes, classes.size(), skipped.get());
+    }
+
+    /**
+     * Classifies the class files of a package into index entries without loading any class.
+     * <p>
+     * Each classpath root containing the package (a directory or a possibly nested jar) is
+     * fingerprinted; roots whose fingerprint matches the {@link ScanCache} reuse the cached
+     * entries and are not read at all, so only changed roots are rescanned.
+     * </p>
+     *
+     * @param classifier maps the metadata of a class to its entry, or to {@code null} to skip it
+     * @param cache      the persistent scan cache, or {@code null} to always scan
+     * @return the entries sorted by class name
+     */
+    public static List<ComponentIndex.Entry> scanEntries(String basePackage, ClassLoader classLoader,
+                                                         Function<ClassFileMetadata, ComponentIndex.Entry> classifier,
+                                                         boolean parallel, ScanCache cache) throws IOException {
+        return scanEntries(basePackage, classLoader, classifier, parallel, cache, false);
+    }
+
+    /**
+     * Same as {@link #scanEntries(String, ClassLoader, Function, boolean, ScanCache)}, taking the
+     * entries of a root from its {@value ComponentIndex#INDEX_LOCATION} when {@code useIndex} is set
+     * and the root has one. Roots without an index, such as classes compiled without the index
+     * processor, are still scanned, so one indexed jar does not hide the components of the others.
+     */
+    public static List<ComponentIndex.Entry> scanEntries(String basePackage, ClassLoader classLoader,
+                                                         Function<ClassFileMetadata, ComponentIndex.Entry> classifier,
+                                                         boolean parallel, ScanCache cache, boolean useIndex) throws IOException {
+        ForkJoinPool pool = null;
+        List<ComponentIndex.Entry> entries = new ArrayList<>();
+        int scannedRoots = 0;
+        int cachedRoots = 0;
+        int indexedRoots = 0;
+        AtomicInteger skipped = new AtomicInteger();
+
+        try {
+            for (ScanRoot root : findRoots(basePackage, classLoader)) {
+                if (useIndex) {
+                    List<ComponentIndex.Entry> indexed = root.readIndex();
+                    if (indexed != null) {
+                        logger.debug("Using component index of {}", root.id());
+                        for (ComponentIndex.Entry entry : indexed) {
+                            if (entry.isInPackage(basePackage)) entries.add(entry);
+                        }
+                        indexedRoots++;
+                        continue;
+                    }
+                }
+                String fingerprint = null;
+                if (cache != null) {
+                    fingerprint = root.fingerprint();
+                    List<ComponentIndex.Entry> cached = cache.get(root.id(), fingerprint);
+                    if (cached != null) {
+                        entries.addAll(cached);
+                        cachedRoots++;
+                        continue;
+                    }
+                }
+
+                if (parallel && pool == null) {
+                    pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                }
+                Collection<ComponentIndex.Entry> rootEntries = new ConcurrentLinkedQueue<>();
+                Set<String> annotations = ConcurrentHashMap.newKeySet();
+                scanRoot(root, (className, bytes) -> {
+                    ClassFileMetadata metadata = ClassFileReader.read(bytes.read());
+                    annotations.addAll(metadata.annotations().keySet());
+                    ComponentIndex.Entry entry = classifier.apply(metadata);
+                    if (entry != null) {
+                        rootEntries.add(entry);
+                    } else {
+                        skipped.incrementAndGet();
+                    }
+                }, pool);
+                List<ComponentIndex.Entry> sorted = new ArrayList<>(rootEntries);
+                sorted.sort(Comparator.comparing(ComponentIndex.Entry::className));
+                if (cache != null) {
+                    cache.put(root.id(), fingerprint, sorted, annotations);
+                }
+                entries.addAll(sorted);
+                scannedRoots++;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        if (cache != null && scannedRoots > 0) {
+            cache.save();
+        }
+
+        entries.sort(Comparator.comparing(ComponentIndex.Entry::className));
+        logger.info("Found {} candidate classes in package {}, skipped {} scanned classes ({} roots indexed, {} scanned, {} from cache)",
+                entries.size(), basePackage, skipped.get(), indexedRoots, scannedRoots, cachedRoots);
+        return entries;
+    }
+
+    private static List<ScanRoot> findRoots(String basePackage, ClassLoader classLoader) throws IOException {
         String path = basePackage.replace('.', '/');
         Enumeration<URL> resources = classLoader.getResources(path);
-        List<File> dirs = new ArrayList<>();
-
-        logger.debug("Scanning package: {}", basePackage);
+        List<ScanRoot> roots = new ArrayList<>();
 
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
-            if (resource.getProtocol().equals("file")) {
-                try {
-                    String decodedPath = URLDecoder.decode(resource.getFile(), StandardCharsets.UTF_8);
-                    File dir = new File(decodedPath);
-                    if (dir.exists() && dir.isDirectory()) {
-                        dirs.add(dir);
-                        logger.debug("Found directory: {}", dir.getAbsolutePath());
+            try {
+                switch (resource.getProtocol()) {
+                    case "file" -> {
+                        String decodedPath = URLDecoder.decode(resource.getFile(), StandardCharsets.UTF_8);
+                        File dir = new File(decodedPath);
+                        if (dir.exists() && dir.isDirectory()) {
+                            logger.debug("Found directory: {}", dir.getAbsolutePath());
+                            roots.add(new DirectoryRoot(dir, basePackage));
+                        }
                     }
-                } catch (Exception e) {
-                    logger.error("Error processing resource: {}", resource, e);
+                    case "jar" -> roots.add(findArchiveRoot(resource, path));
+                    default -> logger.debug("Unsupported resource protocol, skipping: {}", resource);
                 }
+            } catch (Exception e) {
+                logger.error("Error processing resource: {}", resource, e);
             }
         }
+        return roots;
+    }
 
-        List<Class<?>> classes = new ArrayList<>();
-        for (File directory : dirs) {
-            classes.addAll(findClasses(directory, basePackage, classLoader));
+    private static void scanRoot(ScanRoot root, ClassSink sink, ForkJoinPool pool) {
+        if (root instanceof DirectoryRoot directory) {
+            if (pool != null) {
+                pool.invoke(new DirectoryScanTask(directory.directory(), directory.packageName(), sink));
+            } else {
+                findClasses(directory.directory(), directory.packageName(), sink);
+            }
+        } else if (root instanceof ArchiveRoot archive) {
+            List<ZipArchiveIndex.Entry> entries = archive.classEntries();
+            if (pool != null) {
+                pool.invoke(new ArchiveScanTask(archive, entries, sink));
+            } else {
+                for (ZipArchiveIndex.Entry entry : entries) {
+                    offerEntry(archive, entry, sink);
+                }
+            }
         }
-
-        logger.info("Found {} classes in package {}", classes.size(), basePackage);
-        return classes;
     }
 
-    private static List<Class<?>> findClasses(File directory, String packageName, ClassLoader classLoader) {
-        List<Class<?>> classes = new ArrayList<>();
+    private static void findClasses(File directory, String packageName, ClassSink sink) {
         if (!directory.exists()) {
             logger.warn("Directory does not exist: {}", directory.getAbsolutePath());
-            return classes;
+            return;
         }
 
         File[] files = directory.listFiles();
-        if (files == null) return classes;
+        if (files == null) return;
 
         for (File file : files) {
-            try {
+            if (file.isDirectory()) {
+                findClasses(file, packageName + "." + file.getName(), sink);
+            } else {
+                offerFile(file, packageName, sink);
+            }
+        }
+    }
+
+    private static void offerFile(File file, String packageName, ClassSink sink) {
+        if (!isClassFile(file.getName())) return;
+        try {
+            String className = packageName + '.' +
+                    file.getName().substring(0, file.getName().length() - 6);
+            sink.accept(className, () -> ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+        } catch (Exception e) {
+            logger.warn("Skipping file {}: {}", file.getName(), e.getMessage());
+        }
+    }
+
+    private static void offerEntry(ArchiveRoot root, ZipArchiveIndex.Entry entry, ClassSink sink) {
+        String entryName = entry.name();
+        try {
+            String className = entryName.substring(root.prefix().length(), entryName.length() - 6).replace('/', '.');
+            sink.accept(className, () -> root.archive().read(entry));
+        } catch (Exception e) {
+            logger.warn("Skipping entry {}: {}", entryName, e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves a package inside a jar, including jars nested in the application jar
+     * ({@code jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/com/example}) and the
+     * {@code jar:nested:/app.jar/!BOOT-INF/classes/!/com/example} form.
+     */
+    private static ArchiveRoot findArchiveRoot(URL resource, String packagePath) throws Exception {
+        String[] segments = resource.getPath().split("!/");
+        String root = segments[0];
+
+        ArchiveLocation location;
+        if (root.startsWith("nested:")) {
+            String nested = URLDecoder.decode(root.substring("nested:".length()), StandardCharsets.UTF_8);
+            int separator = nested.indexOf("/!");
+            if (separator < 0) {
+                location = new ArchiveLocation(ZipArchiveIndex.open(Path.of(nested)), "");
+            } else {
+                location = new ArchiveLocation(ZipArchiveIndex.open(Path.of(nested.substring(0, separator))), "")
+                        .descend(nested.substring(separator + 2));
+            }
+        } else {
+            location = new ArchiveLocation(ZipArchiveIndex.open(Paths.get(new URI(root))), "");
+        }
+        // the last segment is the package itself
+        for (int i = 1; i < segments.length - 1; i++) {
+            location = location.descend(segments[i]);
+        }
+
+        logger.debug("Found archive: {} (prefix '{}')", location.archive().getName(), location.prefix());
+        return new ArchiveRoot(location.archive(), location.prefix(), packagePath);
+    }
+
+    /**
+     * A position inside a (possibly nested) archive: the archive and the directory prefix of class entries.
+     */
+    private record ArchiveLocation(ZipArchiveIndex archive, String prefix) {
+        ArchiveLocation descend(String segment) throws IOException {
+            String entryName = prefix + segment;
+            ZipArchiveIndex.Entry entry = archive.getEntry(entryName);
+            if (entry != null && !entry.isDirectory()) {
+                return new ArchiveLocation(archive.nested(entryName), "");
+            }
+            return new ArchiveLocation(archive, entryName.endsWith("/") ? entryName : entryName + "/");
+        }
+    }
+
+    /**
+     * One classpath location holding classes of the scanned package.
+     */
+    private interface ScanRoot {
+        /**
+         * Stable identity of the root across launches.
+         */
+        String id();
+
+        /**
+         * Cheap digest that changes whenever a class file below the root changes.
+         */
+        String fingerprint() throws IOException;
+
+        /**
+         * Entries of the component index of the classpath root holding this root, or {@code null}
+         * if it has none.
+         */
+        List<ComponentIndex.Entry> readIndex() throws IOException;
+    }
+
+    private record DirectoryRoot(File directory, String packageName) implements ScanRoot {
+        @Override
+        public String id() {
+            return directory.getAbsolutePath();
+        }
+
+        /**
+         * Digest of the relative path, size and modification time of every class file; no file is read.
+         */
+        @Override
+        public String fingerprint() throws IOException {
+            Path base = directory.toPath();
+            ScanCache.Fingerprint fingerprint = new ScanCache.Fingerprint();
+            try (Stream<Path> files = Files.walk(base)) {
+                for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                    if (!isClassFile(file.getFileName().toString())) continue;
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    fingerprint.add(base.relativize(file).toString())
+                            .add(attributes.size())
+                            .add(attributes.lastModifiedTime().toMillis());
+                }
+            }
+            return fingerprint.toString();
+        }
+
+        @Override
+        public List<ComponentIndex.Entry> readIndex() throws IOException {
+            File classpathRoot = directory;
+            for (String segment : packageName.split("\\.")) {
+                if (!segment.isEmpty() && classpathRoot != null) classpathRoot = classpathRoot.getParentFile();
+            }
+            if (classpathRoot == null) return null;
+            Path index = classpathRoot.toPath().resolve(ComponentIndex.INDEX_LOCATION);
+            if (!Files.isRegularFile(index)) return null;
+            try (InputStream input = Files.newInputStream(index)) {
+                return ComponentIndex.read(input);
+            }
+        }
+    }
+
+    private record ArchiveRoot(ZipArchiveIndex archive, String prefix, String packagePath) implements ScanRoot {
+        @Override
+        public String id() {
+            return archive.getName() + "!/" + prefix + packagePath;
+        }
+
+        /**
+         * Digest of the name, size and CRC of every class entry, all taken from the central directory.
+         */
+        @Override
+        public String fingerprint() {
+            ScanCache.Fingerprint fingerprint = new ScanCache.Fingerprint();
+            for (ZipArchiveIndex.Entry entry : classEntries()) {
+                fingerprint.add(entry.name()).add(entry.size()).add(entry.crc());
+            }
+            return fingerprint.toString();
+        }
+
+        @Override
+        public List<ComponentIndex.Entry> readIndex() throws IOException {
+            ZipArchiveIndex.Entry index = archive.getEntry(prefix + ComponentIndex.INDEX_LOCATION);
+            if (index == null || index.isDirectory()) return null;
+            ByteBuffer bytes = archive.read(index);
+            byte[] content = new byte[bytes.remaining()];
+            bytes.get(content);
+            return ComponentIndex.read(new ByteArrayInputStream(content));
+        }
+
+        List<ZipArchiveIndex.Entry> classEntries() {
+            List<ZipArchiveIndex.Entry> entries = new ArrayList<>();
+            for (ZipArchiveIndex.Entry entry : archive.entriesWithPrefix(prefix + packagePath + "/").values()) {
+                String entryName = entry.name();
+                if (!entry.isDirectory() && isClassFile(entryName.substring(entryName.lastIndexOf('/') + 1))) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Scans one directory, forking a subtask per sub-directory so idle workers steal subtrees.
+     */
+    private static final class DirectoryScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final String packageName;
+        private final ClassSink sink;
+
+        private DirectoryScanTask(File directory, String packageName, ClassSink sink) {
+            this.directory = directory;
+            this.packageName = packageName;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            File[] files = directory.listFiles();
+            if (files == null) return;
+
+            List<DirectoryScanTask> subtasks = new ArrayList<>();
+            for (File file : files) {
                 if (file.isDirectory()) {
-                    classes.addAll(findClasses(file,
-                            packageName + "." + file.getName(),
-                            classLoader));
-                } else if (file.getName().endsWith(".class")) {
-                    String className = packageName + '.' +
-                            file.getName().substring(0, file.getName().length() - 6);
-                    classes.add(loadClass(className, classLoader));
+                    DirectoryScanTask subtask = new DirectoryScanTask(file, packageName + "." + file.getName(), sink);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                } else {
+                    offerFile(file, packageName, sink);
                 }
-            } catch (Exception e) {
-                logger.warn("Skipping file {}: {}", file.getName(), e.getMessage());
             }
+            for (DirectoryScanTask subtask : subtasks) {
+                subtask.join();
+            }
+        }
+    }
+
+    /**
+     * Parses a range of archive entries, splitting it in halves above {@link #THRESHOLD}.
+     */
+    private static final class ArchiveScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 64;
+
+        private final ArchiveRoot root;
+        private final List<ZipArchiveIndex.Entry> entries;
+        private final ClassSink sink;
+
+        private ArchiveScanTask(ArchiveRoot root, List<ZipArchiveIndex.Entry> entries, ClassSink sink) {
+            this.root = root;
+            this.entries = entries;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (entries.size() <= THRESHOLD) {
+                for (ZipArchiveIndex.Entry entry : entries) {
+                    offerEntry(root, entry, sink);
+                }
+                return;
+            }
+            int middle = entries.size() / 2;
+            invokeAll(new ArchiveScanTask(root, entries.subList(0, middle), sink),
+                    new ArchiveScanTask(root, entries.subList(middle, entries.size()), sink));
         }
-        return classes;
+    }
+
+    private static boolean isClassFile(String fileName) {
+        // module-info and package-info are not loadable classes
+        return fileName.endsWith(".class") && fileName.indexOf('-') < 0;
+    }
+
+    /**
+     * Receives the class files found by a scan; must be thread safe for parallel scans.
+     */
+    @FunctionalInterface
+    private interface ClassSink {
+        void accept(String className, ClassBytes bytes) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ClassBytes {
+        ByteBuffer read() throws IOException;
     }
 
     private static Class<?> loadClass(String className, ClassLoader classLoader)
@@ -86,4 +524,4 @@ public class PackageClassesLoader {
             throw new ClassNotFoundException("Dependency missing for class: " + className, e);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,18 @@
 package io.github.itech_framework.core.utils;
 
+import io.github.itech_framework.core.ApplicationContext;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 
+/**
+ * Properties of the current {@link ApplicationContext}.
+ */
 public class PropertiesLoader {
-    private static final Properties properties = new Properties();
-
     public static void load(String[] filenames, Class<?> clazz) {
         if(filenames ==null) return;
+        Properties properties = ApplicationContext.current().getProperties();
         for(String filename: filenames){
             try (InputStream input = clazz.getClassLoader()
                     .getResourceAsStream(filename)) {
@@ -25,6 +29,6 @@ public class PropertiesLoader {
     }
 
     public static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return ApplicationContext.current().getProperty(key, defaultValue);
     }
 }
@@ -0,0 +1,281 @@
+package io.github.itech_framework.core.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Persistent cache of scan results, stored under the user cache directory.
+ * <p>
+ * Holds the classified entries of every classpath root of one scan configuration and classpath
+ * together with the root's fingerprint (see {@link PackageClassesLoader#scanEntries}). A root is
+ * not scanned again while its fingerprint, the framework version and the definitions of the
+ * annotation types its classes carry (including stereotypes declared in other roots, resolved
+ * transitively) are unchanged; changed roots are rescanned and replaced individually.
+ * </p>
+ * <p>
+ * Controlled by system properties: {@value #ENABLED_PROPERTY} ({@code false} disables the
+ * cache) and {@value #DIRECTORY_PROPERTY} (overrides the cache directory).
+ * </p>
+ */
+public class ScanCache {
+    private static final Logger logger = LogManager.getLogger(ScanCache.class);
+
+    public static final String ENABLED_PROPERTY = "itech.scan.cache";
+    public static final String DIRECTORY_PROPERTY = "itech.cache.dir";
+
+    private static final String HEADER = "# itech scan cache v2";
+    private static final String ROOT_PREFIX = "@root\t";
+    private static final String VERSION_RESOURCE = "/META-INF/itech/framework.properties";
+    private static final String FRAMEWORK_VERSION = readFrameworkVersion();
+
+    private final Path file;
+    private final AnnotationMetadataResolver resolver;
+    private final Map<String, CachedRoot> roots;
+    private final Map<String, CachedRoot> updated = new LinkedHashMap<>();
+
+    /**
+     * @param annotations          annotation definitions the entries were classified with
+     * @param annotationFingerprint {@link AnnotationMetadataResolver#fingerprint} of those definitions
+     */
+    private record CachedRoot(String fingerprint, String frameworkVersion, String annotationFingerprint,
+                              Set<String> annotations, List<ComponentIndex.Entry> entries) {
+    }
+
+    private ScanCache(Path file, AnnotationMetadataResolver resolver, Map<String, CachedRoot> roots) {
+        this.file = file;
+        this.resolver = resolver;
+        this.roots = roots;
+    }
+
+    /**
+     * Opens the cache for one scan configuration on the classpath of the class loader.
+     *
+     * @param cacheKey identifies everything besides the classpath that affects the scan result
+     * @param resolver resolves the annotation definitions cached roots depend on
+     * @return the cache, or {@code null} when caching is disabled
+     */
+    public static ScanCache open(String cacheKey, ClassLoader classLoader, AnnotationMetadataResolver resolver) {
+        if ("false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        String name = new Fingerprint().add(cacheKey).add(classpathIdentity(classLoader)).toString();
+        Path file = cacheDirectory().resolve("scan-" + name + ".cache");
+        return new ScanCache(file, resolver, read(file));
+    }
+
+    /**
+     * @return the cached entries of the root, or {@code null} if the root is unknown or it, the
+     * framework or the annotation definitions it depends on changed
+     */
+    public List<ComponentIndex.Entry> get(String rootId, String fingerprint) {
+        CachedRoot root = roots.get(rootId);
+        if (root == null || !root.fingerprint().equals(fingerprint)
+                || !root.frameworkVersion().equals(FRAMEWORK_VERSION)
+                || !root.annotationFingerprint().equals(resolver.fingerprint(root.annotations()))) {
+            logger.debug("Scan cache miss for {}", rootId);
+            return null;
+        }
+        return root.entries();
+    }
+
+    /**
+     * @param annotations the annotation types carried by the scanned classes of the root
+     */
+    public void put(String rootId, String fingerprint, List<ComponentIndex.Entry> entries, Collection<String> annotations) {
+        Set<String> definitions = resolver.resolveDefinitions(annotations);
+        updated.put(rootId, new CachedRoot(fingerprint, FRAMEWORK_VERSION, resolver.fingerprint(definitions),
+                definitions, List.copyOf(entries)));
+    }
+
+    /**
+     * Writes the roots scanned in this run, merged with the roots in the file, which may have been
+     * written by another application meanwhile. Roots whose file or directory no longer exists are
+     * dropped.
+     */
+    public void save() {
+        if (updated.isEmpty()) return;
+        try {
+            Files.createDirectories(file.getParent());
+            Map<String, CachedRoot> merged = new TreeMap<>(read(file));
+            merged.putAll(updated);
+            merged.keySet().removeIf(rootId -> !rootExists(rootId));
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.write('\n');
+                for (Map.Entry<String, CachedRoot> root : merged.entrySet()) {
+                    CachedRoot cached = root.getValue();
+                    writer.write(ROOT_PREFIX + root.getKey() + "\t" + cached.fingerprint() + "\t" + cached.frameworkVersion()
+                            + "\t" + cached.annotationFingerprint() + "\t" + String.join(",", cached.annotations()) + "\n");
+                    for (ComponentIndex.Entry entry : cached.entries()) {
+                        writer.write(entry.toLine());
+                        writer.write('\n');
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Scan cache written: {}", file);
+        } catch (IOException e) {
+            logger.warn("Cannot write scan cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    // root ids start with the path of the directory or archive, see PackageClassesLoader
+    private static boolean rootExists(String rootId) {
+        int archiveEnd = rootId.indexOf("!/");
+        try {
+            return Files.exists(Paths.get(archiveEnd < 0 ? rootId : rootId.substring(0, archiveEnd)));
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, CachedRoot> read(Path file) {
+        Map<String, CachedRoot> roots = new HashMap<>();
+        if (!Files.isRegularFile(file)) return roots;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) return roots;
+            String[] root = null;
+            List<ComponentIndex.Entry> entries = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ROOT_PREFIX)) {
+                    if (root != null) roots.put(root[0], cachedRoot(root, entries));
+                    root = line.substring(ROOT_PREFIX.length()).split("\t", -1);
+                    if (root.length != 5) throw new IllegalArgumentException("Malformed root line: " + line);
+                    entries = new ArrayList<>();
+                } else if (root != null && !line.isBlank()) {
+                    entries.add(ComponentIndex.Entry.parse(line));
+                }
+            }
+            if (root != null) roots.put(root[0], cachedRoot(root, entries));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable scan cache {}: {}", file, e.getMessage());
+            roots.clear();
+        }
+        return roots;
+    }
+
+    private static CachedRoot cachedRoot(String[] root, List<ComponentIndex.Entry> entries) {
+        Set<String> annotations = root[4].isEmpty() ? Set.of() : new TreeSet<>(Arrays.asList(root[4].split(",")));
+        return new CachedRoot(root[1], root[2], root[3], annotations, entries);
+    }
+
+    /**
+     * The class path and module path, and the URLs of any {@link URLClassLoader} in the hierarchy,
+     * so applications sharing a base package keep separate cache files.
+     */
+    private static String classpathIdentity(ClassLoader classLoader) {
+        StringBuilder identity = new StringBuilder()
+                .append(System.getProperty("java.class.path", "")).append('|')
+                .append(System.getProperty("jdk.module.path", ""));
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader urlLoader) {
+                for (URL url : urlLoader.getURLs()) {
+                    identity.append('|').append(url);
+                }
+            }
+        }
+        return identity.toString();
+    }
+
+    private static String readFrameworkVersion() {
+        try (InputStream input = ScanCache.class.getResourceAsStream(VERSION_RESOURCE)) {
+            if (input != null) {
+                Properties properties = new Properties();
+                properties.load(input);
+                String version = properties.getProperty("version");
+                if (version != null && !version.isBlank() && !version.startsWith("${")) return version.trim();
+            }
+        } catch (IOException e) {
+            logger.debug("Cannot read framework version: {}", e.getMessage());
+        }
+        String version = ScanCache.class.getPackage().getImplementationVersion();
+        return version == null ? "unknown" : version;
+    }
+
+    private static Path cacheDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        String home = System.getProperty("user.home");
+        String os = System.getProperty("os.name", "").toLowerCase();
+        Path base;
+        if (os.contains("win") && System.getenv("LOCALAPPDATA") != null) {
+            base = Paths.get(System.getenv("LOCALAPPDATA"));
+        } else if (os.contains("mac")) {
+            base = Paths.get(home, "Library", "Caches");
+        } else if (System.getenv("XDG_CACHE_HOME") != null) {
+            base = Paths.get(System.getenv("XDG_CACHE_HOME"));
+        } else {
+            base = Paths.get(home, ".cache");
+        }
+        return base.resolve("itech-framework");
+    }
+
+    /**
+     * Incremental digest used for root fingerprints and cache file names.
+     */
+    public static final class Fingerprint {
+        private final MessageDigest digest;
+
+        public Fingerprint() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        public Fingerprint add(String value) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return this;
+        }
+
+        public Fingerprint add(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                digest.update((byte) (value >>> shift));
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            byte[] hash = digest.digest();
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return hex.toString();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package io.github.itech_framework.core.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * In-memory index of a zip archive built from its central directory.
+ * <p>
+ * The archive is memory mapped and the central directory is read once; entries are only
+ * located and inflated when {@link #read(Entry)} is called, so filtering by name never
+ * touches the data of non matching entries. Archives stored inside another archive (the
+ * {@code BOOT-INF/lib/*.jar} layout of fat jars) are opened through {@link #nested(String)},
+ * which slices the parent mapping when the nested jar is stored uncompressed.
+ * </p>
+ * <p>
+ * Indexes are cached by archive identity, so scanning the same jar for several packages
+ * reads its central directory only once. Call {@link #clearCache()} when scanning is done.
+ * </p>
+ */
+public class ZipArchiveIndex {
+    private static final Logger logger = LogManager.getLogger(ZipArchiveIndex.class);
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int END_RECORD_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final Map<String, ZipArchiveIndex> cache = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final ByteBuffer data;
+    private final NavigableMap<String, Entry> entries;
+    private final Map<String, ZipArchiveIndex> nestedArchives = new ConcurrentHashMap<>();
+
+    /**
+     * A central directory record.
+     */
+    public record Entry(String name, int method, long compressedSize, long size, long crc, long localHeaderOffset) {
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    private ZipArchiveIndex(String name, ByteBuffer data) throws IOException {
+        this.name = name;
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        this.entries = readCentralDirectory();
+        logger.debug("Indexed archive {} with {} entries", name, entries.size());
+    }
+
+    /**
+     * Returns the cached index of an archive on disk, reading its central directory on first use.
+     */
+    public static ZipArchiveIndex open(Path archive) throws IOException {
+        String key = archive.toAbsolutePath().normalize().toString();
+        ZipArchiveIndex index = cache.get(key);
+        if (index == null) {
+            index = new ZipArchiveIndex(key, map(archive));
+            ZipArchiveIndex existing = cache.putIfAbsent(key, index);
+            if (existing != null) index = existing;
+        }
+        return index;
+    }
+
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the index of an archive stored as an entry of this archive.
+     */
+    public ZipArchiveIndex nested(String entryName) throws IOException {
+        ZipArchiveIndex index = nestedArchives.get(entryName);
+        if (index == null) {
+            Entry entry = entries.get(entryName);
+            if (entry == null || entry.isDirectory()) {
+                throw new IOException("No nested archive " + entryName + " in " + name);
+            }
+            index = new ZipArchiveIndex(name + "!/" + entryName, read(entry));
+            ZipArchiveIndex existing = nestedArchives.putIfAbsent(entryName, index);
+            if (existing != null) index = existing;
+        }
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Entry getEntry(String entryName) {
+        return entries.get(entryName);
+    }
+
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the entries whose names start with the given prefix, in name order.
+     */
+    public Map<String, Entry> entriesWithPrefix(String prefix) {
+        return entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Returns the uncompressed content of an entry; stored entries are a view of the archive.
+     */
+    public ByteBuffer read(Entry entry) throws IOException {
+        int offset = checkedInt(entry.localHeaderOffset());
+        if (data.getInt(offset) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("Bad local header for " + entry.name() + " in " + name);
+        }
+        int nameLength = data.getShort(offset + 26) & 0xFFFF;
+        int extraLength = data.getShort(offset + 28) & 0xFFFF;
+        int start = offset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+        ByteBuffer compressed = data.slice(start, checkedInt(entry.compressedSize()));
+
+        switch (entry.method()) {
+            case METHOD_STORED:
+                return compressed;
+            case METHOD_DEFLATED:
+                Inflater inflater = new Inflater(true);
+                try {
+                    inflater.setInput(compressed);
+                    if (entry.size() > Integer.MAX_VALUE) {
+                        throw new IOException("Entry too large: " + entry.name() + " in " + name);
+                    }
+                    byte[] out = new byte[(int) entry.size()];
+                    int written = 0;
+                    while (written < out.length && !inflater.finished()) {
+                        int n = inflater.inflate(out, written, out.length - written);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                        written += n;
+                    }
+                    if (written != out.length) {
+                        throw new IOException("Truncated entry " + entry.name() + " in " + name);
+                    }
+                    return ByteBuffer.wrap(out);
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupt entry " + entry.name() + " in " + name, e);
+                } finally {
+                    inflater.end();
+                }
+            default:
+                throw new IOException("Unsupported compression method " + entry.method() + " for " + entry.name());
+        }
+    }
+
+    private NavigableMap<String, Entry> readCentralDirectory() throws IOException {
+        int end = findEndRecord();
+        long count = data.getShort(end + 10) & 0xFFFF;
+        long directorySize = data.getInt(end + 12) & ZIP64_MAGIC;
+        long directoryOffset = data.getInt(end + 16) & ZIP64_MAGIC;
+
+        int locator = end - 20;
+        boolean zip64 = locator >= 0 && data.getInt(locator) == ZIP64_LOCATOR_SIGNATURE;
+        if (zip64) {
+            int zip64End = checkedInt(data.getLong(locator + 8));
+            if (data.getInt(zip64End) != ZIP64_END_SIGNATURE) {
+                throw new IOException("Bad zip64 end record in " + name);
+            }
+            count = data.getLong(zip64End + 32);
+            directorySize = data.getLong(zip64End + 40);
+            directoryOffset = data.getLong(zip64End + 48);
+        }
+
+        // data prepended to the archive (e.g. a launch script) shifts every recorded offset
+        long shift = zip64 ? 0 : end - directorySize - directoryOffset;
+        long shifted = directoryOffset + shift;
+        if (shift != 0 && (shifted < 0 || shifted + 4 > data.limit()
+                || data.getInt((int) shifted) != CENTRAL_HEADER_SIGNATURE)) {
+            shift = 0;
+        }
+        directoryOffset += shift;
+
+        NavigableMap<String, Entry> result = new TreeMap<>();
+        int position = checkedInt(directoryOffset);
+        int limit = checkedInt(directoryOffset + directorySize);
+        for (long i = 0; i < count && position < limit; i++) {
+            if (data.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new IOException("Bad central directory header in " + name);
+            }
+            int method = data.getShort(position + 10) & 0xFFFF;
+            long crc = data.getInt(position + 16) & ZIP64_MAGIC;
+            long compressedSize = data.getInt(position + 20) & ZIP64_MAGIC;
+            long size = data.getInt(position + 24) & ZIP64_MAGIC;
+            int nameLength = data.getShort(position + 28) & 0xFFFF;
+            int extraLength = data.getShort(position + 30) & 0xFFFF;
+            int commentLength = data.getShort(position + 32) & 0xFFFF;
+            long localHeaderOffset = data.getInt(position + 42) & ZIP64_MAGIC;
+
+            byte[] nameBytes = new byte[nameLength];
+            data.get(position + 46, nameBytes);
+            String entryName = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (size == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+                // zip64 extra field holds the real values, in this order, only for the overflowing fields
+                int extra = position + 46 + nameLength;
+                int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    int id = data.getShort(extra) & 0xFFFF;
+                    int length = data.getShort(extra + 2) & 0xFFFF;
+                    if (id == ZIP64_EXTRA_ID) {
+                        int field = extra + 4;
+                        if (size == ZIP64_MAGIC) { size = data.getLong(field); field += 8; }
+                        if (compressedSize == ZIP64_MAGIC) { compressedSize = data.getLong(field); field += 8; }
+                        if (localHeaderOffset == ZIP64_MAGIC) { localHeaderOffset = data.getLong(field); }
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+
+            result.put(entryName, new Entry(entryName, method, compressedSize, size, crc, localHeaderOffset + shift));
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return result;
+    }
+
+    private int findEndRecord() throws IOException {
+        int lowest = Math.max(0, data.limit() - END_RECORD_SIZE - MAX_COMMENT_SIZE);
+        for (int position = data.limit() - END_RECORD_SIZE; position >= lowest; position--) {
+            if (data.getInt(position) == END_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new IOException("Not a zip archive: " + name);
+    }
+
+    private static ByteBuffer map(Path archive) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Archive too large to map: " + archive);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private int checkedInt(long value) throws IOException {
+        if (value < 0 || value > data.limit()) {
+            throw new IOException("Zip offset out of range in " + name + ": " + value);
+        }
+        return (int) value;
+    }
+}